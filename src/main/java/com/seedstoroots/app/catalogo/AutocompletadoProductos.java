@@ -0,0 +1,263 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trie de prefijos sobre los nombres de los productos activos, sin tildes y en minusculas.
+ * Se indexa el nombre desde el inicio de cada palabra, asi "tom" sugiere "Semillas de Tomate".
+ * Cada nodo guarda sus mejores ids (los mas recientes), por lo que una consulta solo recorre
+ * el prefijo y copia esa lista. Los hijos se guardan en arreglos ordenados por letra en vez
+ * de un mapa por nodo para que el trie ocupe poco.
+ */
+@Component
+public class AutocompletadoProductos {
+
+    private final int sugerenciasPorNodo;
+
+    private final Nodo raiz = new Nodo();
+    // id -> producto indexado; se usa para ordenar por recencia y para quitar las claves del nombre anterior
+    private final Map<Long, ProductoResponse> productos = new HashMap<>();
+    private final Comparator<Long> porRecencia;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public AutocompletadoProductos(@Value("${catalogo.autocompletado.sugerencias:10}") int sugerenciasPorNodo) {
+        this.sugerenciasPorNodo = sugerenciasPorNodo;
+        this.porRecencia = Comparator.comparing(productos::get, CatalogoSnapshot.ORDEN_RECIENTES);
+    }
+
+    public int getSugerenciasPorNodo() {
+        return sugerenciasPorNodo;
+    }
+
+    public List<Long> sugerir(String prefijo, int limit) {
+        String clave = String.join(" ", TextoNormalizado.palabras(prefijo));
+        if (clave.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Un espacio final indica que la ultima palabra esta completa
+        if (prefijo.endsWith(" ")) {
+            clave += " ";
+        }
+
+        lock.readLock().lock();
+        try {
+            Nodo nodo = raiz;
+            for (int i = 0; i < clave.length() && nodo != null; i++) {
+                nodo = nodo.hijo(clave.charAt(i));
+            }
+            if (nodo == null) {
+                return List.of();
+            }
+            return List.copyOf(nodo.mejores.subList(0, Math.min(limit, nodo.mejores.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void alRecargarCatalogo(CatalogoReconstruidoEvento evento) {
+        lock.writeLock().lock();
+        try {
+            raiz.limpiar();
+            productos.clear();
+            for (ProductoResponse producto : evento.activos()) {
+                if (Boolean.TRUE.equals(producto.getActivo())) {
+                    agregar(producto);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void alCambiarProducto(ProductoAplicadoEvento evento) {
+        ProductoResponse producto = evento.producto();
+        lock.writeLock().lock();
+        try {
+            ProductoResponse anterior = productos.get(producto.getId());
+            boolean activo = Boolean.TRUE.equals(producto.getActivo());
+            if (anterior != null && activo && mismasClaves(anterior, producto)
+                    && CatalogoSnapshot.ORDEN_RECIENTES.compare(anterior, producto) == 0) {
+                // Solo cambiaron datos que no afectan las sugerencias
+                productos.put(producto.getId(), producto);
+                return;
+            }
+            if (anterior != null) {
+                quitar(anterior);
+            }
+            if (activo) {
+                agregar(producto);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void agregar(ProductoResponse producto) {
+        productos.put(producto.getId(), producto);
+        for (String clave : claves(producto.getNombre())) {
+            List<Nodo> camino = new ArrayList<>(clave.length() + 1);
+            Nodo nodo = raiz;
+            camino.add(nodo);
+            for (int i = 0; i < clave.length(); i++) {
+                nodo = nodo.hijoOCrear(clave.charAt(i));
+                camino.add(nodo);
+            }
+            nodo.terminales.add(producto.getId());
+            for (Nodo visitado : camino) {
+                insertarEnMejores(visitado, producto.getId());
+            }
+        }
+    }
+
+    private void quitar(ProductoResponse producto) {
+        for (String clave : claves(producto.getNombre())) {
+            List<Nodo> camino = new ArrayList<>(clave.length() + 1);
+            Nodo nodo = raiz;
+            camino.add(nodo);
+            for (int i = 0; i < clave.length() && nodo != null; i++) {
+                nodo = nodo.hijo(clave.charAt(i));
+                camino.add(nodo);
+            }
+            if (nodo == null) {
+                continue;
+            }
+            nodo.terminales.remove(producto.getId());
+
+            // De la hoja a la raiz: se recalculan los mejores y se podan los nodos que quedaron vacios
+            for (int i = camino.size() - 1; i >= 0; i--) {
+                Nodo actual = camino.get(i);
+                if (actual.mejores.contains(producto.getId())) {
+                    recalcularMejores(actual, producto.getId());
+                }
+                if (i > 0 && actual.estaVacio()) {
+                    camino.get(i - 1).quitarHijo(clave.charAt(i - 1));
+                }
+            }
+        }
+        productos.remove(producto.getId());
+    }
+
+    private void insertarEnMejores(Nodo nodo, Long id) {
+        if (nodo.mejores.contains(id)) {
+            return;
+        }
+        List<Long> mejores = nodo.mejores;
+        int posicion = 0;
+        while (posicion < mejores.size() && porRecencia.compare(mejores.get(posicion), id) < 0) {
+            posicion++;
+        }
+        if (posicion < sugerenciasPorNodo) {
+            mejores.add(posicion, id);
+            if (mejores.size() > sugerenciasPorNodo) {
+                mejores.remove(mejores.size() - 1);
+            }
+        }
+    }
+
+    // Los mejores de un nodo salen de sus propios terminales y de los mejores de cada hijo
+    private void recalcularMejores(Nodo nodo, Long excluido) {
+        Set<Long> candidatos = new LinkedHashSet<>(nodo.terminales);
+        for (Nodo hijo : nodo.hijos) {
+            candidatos.addAll(hijo.mejores);
+        }
+        candidatos.remove(excluido);
+        List<Long> mejores = new ArrayList<>(candidatos);
+        mejores.sort(porRecencia);
+        nodo.mejores = new ArrayList<>(mejores.subList(0, Math.min(sugerenciasPorNodo, mejores.size())));
+    }
+
+    private boolean mismasClaves(ProductoResponse anterior, ProductoResponse nuevo) {
+        return TextoNormalizado.palabras(anterior.getNombre()).equals(TextoNormalizado.palabras(nuevo.getNombre()));
+    }
+
+    // "Semillas de Tomate" -> "semillas de tomate", "tomate"; no se parte desde palabras vacias
+    private List<String> claves(String nombre) {
+        List<String> palabras = TextoNormalizado.palabras(nombre);
+        List<String> terminos = TextoNormalizado.terminos(nombre);
+        Set<String> claves = new LinkedHashSet<>();
+        for (int i = 0; i < palabras.size(); i++) {
+            if (i == 0 || terminos.contains(palabras.get(i))) {
+                claves.add(String.join(" ", palabras.subList(i, palabras.size())));
+            }
+        }
+        return new ArrayList<>(claves);
+    }
+
+    private static final class Nodo {
+
+        private static final char[] SIN_LETRAS = new char[0];
+        private static final Nodo[] SIN_HIJOS = new Nodo[0];
+
+        private char[] letras = SIN_LETRAS;
+        private Nodo[] hijos = SIN_HIJOS;
+        private final List<Long> terminales = new ArrayList<>(1);
+        private List<Long> mejores = new ArrayList<>(1);
+
+        Nodo hijo(char letra) {
+            int posicion = Arrays.binarySearch(letras, letra);
+            return posicion >= 0 ? hijos[posicion] : null;
+        }
+
+        Nodo hijoOCrear(char letra) {
+            int posicion = Arrays.binarySearch(letras, letra);
+            if (posicion >= 0) {
+                return hijos[posicion];
+            }
+            int insercion = -posicion - 1;
+            char[] nuevasLetras = new char[letras.length + 1];
+            Nodo[] nuevosHijos = new Nodo[hijos.length + 1];
+            System.arraycopy(letras, 0, nuevasLetras, 0, insercion);
+            System.arraycopy(hijos, 0, nuevosHijos, 0, insercion);
+            System.arraycopy(letras, insercion, nuevasLetras, insercion + 1, letras.length - insercion);
+            System.arraycopy(hijos, insercion, nuevosHijos, insercion + 1, hijos.length - insercion);
+            Nodo nuevo = new Nodo();
+            nuevasLetras[insercion] = letra;
+            nuevosHijos[insercion] = nuevo;
+            letras = nuevasLetras;
+            hijos = nuevosHijos;
+            return nuevo;
+        }
+
+        void quitarHijo(char letra) {
+            int posicion = Arrays.binarySearch(letras, letra);
+            if (posicion < 0) {
+                return;
+            }
+            char[] nuevasLetras = new char[letras.length - 1];
+            Nodo[] nuevosHijos = new Nodo[hijos.length - 1];
+            System.arraycopy(letras, 0, nuevasLetras, 0, posicion);
+            System.arraycopy(hijos, 0, nuevosHijos, 0, posicion);
+            System.arraycopy(letras, posicion + 1, nuevasLetras, posicion, letras.length - posicion - 1);
+            System.arraycopy(hijos, posicion + 1, nuevosHijos, posicion, hijos.length - posicion - 1);
+            letras = nuevasLetras.length == 0 ? SIN_LETRAS : nuevasLetras;
+            hijos = nuevosHijos.length == 0 ? SIN_HIJOS : nuevosHijos;
+        }
+
+        boolean estaVacio() {
+            return hijos.length == 0 && terminales.isEmpty();
+        }
+
+        void limpiar() {
+            letras = SIN_LETRAS;
+            hijos = SIN_HIJOS;
+            terminales.clear();
+            mejores = new ArrayList<>(1);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mantiene el snapshot vigente del catalogo. Los lectores solo leen la referencia actual
+ * (sin locks); las escrituras construyen un snapshot nuevo y lo publican de forma atomica.
+ * Las escrituras se serializan entre si para que una recarga completa pueda reaplicar los
+ * cambios individuales que llegaron mientras leia la base de datos.
+ * Tambien es el unico filtro de versiones: los cambios aceptados se reenvian como
+ * ProductoAplicadoEvento y cada recarga como CatalogoReconstruidoEvento, dentro del lock,
+ * asi todos los indices derivados ven la misma secuencia que el snapshot y ninguno aplica
+ * un commit mas antiguo que el vigente.
+ */
+@Component
+public class CatalogoCache {
+
+    // Cambios recientes que se guardan para reaplicar; una recarga rara vez dura tantos cambios
+    private static final int MAXIMO_APLICADOS = 1024;
+
+    private final AtomicReference<CatalogoSnapshot> actual = new AtomicReference<>(CatalogoSnapshot.vacio());
+    private final Deque<Aplicado> aplicados = new ArrayDeque<>();
+    // id -> ultima version aplicada; se conserva al desactivar para descartar un commit anterior atrasado
+    private final Map<Long, Long> versiones = new HashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogoCache(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public CatalogoSnapshot obtenerSnapshot() {
+        return actual.get();
+    }
+
+    @EventListener
+    public synchronized void alRecargarCatalogo(CatalogoRecargadoEvento evento) {
+        CatalogoSnapshot nuevo = actual.get().reemplazarTodo(evento.activos());
+        // La lista se leyo antes de estos cambios; aplicar compara versiones de fila, asi que
+        // los que la lectura ya incluia no retroceden nada
+        for (Aplicado aplicado : aplicados) {
+            if (aplicado.versionSnapshot() > evento.versionLeida()) {
+                nuevo = nuevo.aplicar(aplicado.producto());
+            }
+        }
+        for (ProductoResponse producto : nuevo.getProductos()) {
+            registrarVersion(producto);
+        }
+        actual.set(nuevo);
+        // Desde el snapshot y no desde evento.activos(): la lista leida no tiene los cambios reaplicados
+        eventPublisher.publishEvent(new CatalogoReconstruidoEvento(nuevo.getProductos()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void alCambiarProducto(ProductoEvento evento) {
+        ProductoResponse producto = evento.producto();
+        Long aplicada = versiones.get(producto.getId());
+        if (producto.getVersion() != null && aplicada != null && producto.getVersion() < aplicada) {
+            return;
+        }
+        CatalogoSnapshot anterior = actual.get();
+        CatalogoSnapshot nuevo = anterior.aplicar(producto);
+        if (nuevo == anterior) {
+            return;
+        }
+        registrarVersion(producto);
+        actual.set(nuevo);
+        aplicados.addLast(new Aplicado(nuevo.getVersion(), producto));
+        if (aplicados.size() > MAXIMO_APLICADOS) {
+            aplicados.removeFirst();
+        }
+        eventPublisher.publishEvent(new ProductoAplicadoEvento(evento.tipo(), producto));
+    }
+
+    private void registrarVersion(ProductoResponse producto) {
+        if (producto.getVersion() != null) {
+            versiones.merge(producto.getId(), producto.getVersion(), Math::max);
+        }
+    }
+
+    private record Aplicado(long versionSnapshot, ProductoResponse producto) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.seedstoroots.app.catalogo;
+
+/**
+ * Aviso de que una operacion masiva cambio productos sin pasar por la entidad. Tras el
+ * commit el catalogo en memoria se recarga completo una sola vez.
+ */
+public record CatalogoModificadoEvento(int productosAfectados) {
+}
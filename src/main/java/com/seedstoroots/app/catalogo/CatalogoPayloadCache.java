@@ -0,0 +1,69 @@
+package com.seedstoroots.app.catalogo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON ya serializado (y comprimido con gzip) del listado completo del catalogo. Se arma una
+ * sola vez por version del snapshot; mientras el catalogo no cambie, GET /api/productos
+ * escribe estos bytes directo sin pasar por Jackson.
+ */
+@Component
+public class CatalogoPayloadCache {
+
+    private final ObjectMapper objectMapper;
+
+    private volatile Payload actual;
+
+    public CatalogoPayloadCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Payload obtener(CatalogoSnapshot snapshot) {
+        Payload payload = actual;
+        if (payload != null && payload.version() == snapshot.getVersion()) {
+            return payload;
+        }
+        synchronized (this) {
+            // Otro hilo pudo haberlo construido mientras se esperaba el lock
+            payload = actual;
+            if (payload == null || payload.version() != snapshot.getVersion()) {
+                payload = construir(snapshot);
+                actual = payload;
+            }
+            return payload;
+        }
+    }
+
+    private Payload construir(CatalogoSnapshot snapshot) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(snapshot.getProductos());
+            return new Payload(snapshot.getVersion(), snapshot.getHuella(), json, comprimir(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catalogo", e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] datos) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(64, datos.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    /**
+     * Bytes listos para escribir en la respuesta. La huella identifica el contenido y se usa
+     * como ETag, por eso viaja junto a los bytes que describe.
+     */
+    public record Payload(long version, String huella, byte[] json, byte[] gzip) {
+    }
+}
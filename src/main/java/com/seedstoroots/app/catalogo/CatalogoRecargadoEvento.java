@@ -0,0 +1,15 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+
+import java.util.List;
+
+/**
+ * Carga completa de los productos activos (al arrancar o tras operaciones masivas).
+ * Solo la escucha CatalogoCache; los indices derivados esperan el CatalogoReconstruidoEvento
+ * que publica con el snapshot resultante.
+ * versionLeida es la version del snapshot antes de leer la base de datos: los cambios
+ * aplicados despues pueden no estar en la lista y se vuelven a aplicar sobre ella.
+ */
+public record CatalogoRecargadoEvento(List<ProductoResponse> activos, long versionLeida) {
+}
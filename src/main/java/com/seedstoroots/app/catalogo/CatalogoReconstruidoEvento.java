@@ -0,0 +1,13 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+
+import java.util.List;
+
+/**
+ * Productos activos del snapshot que CatalogoCache acaba de publicar tras una recarga
+ * completa, con los cambios que llegaron durante la lectura ya reaplicados. Los indices
+ * derivados se reconstruyen desde esta lista y no desde la lectura original.
+ */
+public record CatalogoReconstruidoEvento(List<ProductoResponse> activos) {
+}
@@ -0,0 +1,141 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Vista inmutable y versionada de los productos activos. Cada cambio genera un snapshot
+ * nuevo; los ProductoResponse que contiene no deben modificarse.
+ */
+public final class CatalogoSnapshot {
+
+    // Mas reciente primero, igual que findProductosRecientes
+    public static final Comparator<ProductoResponse> ORDEN_RECIENTES = Comparator
+            .comparing(ProductoResponse::getFechaCreacion, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ProductoResponse::getId, Comparator.reverseOrder());
+
+    private final long version;
+    private final String huella;
+    private final Map<Long, ProductoResponse> porId;
+    private final List<ProductoResponse> productos;
+
+    private CatalogoSnapshot(long version, Map<Long, ProductoResponse> porId) {
+        List<ProductoResponse> ordenados = new ArrayList<>(porId.values());
+        ordenados.sort(ORDEN_RECIENTES);
+        this.version = version;
+        this.porId = Collections.unmodifiableMap(porId);
+        this.productos = Collections.unmodifiableList(ordenados);
+        this.huella = calcularHuella(ordenados);
+    }
+
+    // Depende solo del contenido, asi dos instancias con el mismo catalogo generan el mismo ETag
+    // aunque su contador de version sea distinto
+    private static String calcularHuella(List<ProductoResponse> productos) {
+        MessageDigest digest = nuevoDigest();
+        for (ProductoResponse producto : productos) {
+            agregarContenido(digest, producto);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    /**
+     * Huella del contenido de un producto, para su ETag individual.
+     */
+    public static String huellaProducto(ProductoResponse producto) {
+        MessageDigest digest = nuevoDigest();
+        agregarContenido(digest, producto);
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    // Todos los campos que se envian al cliente: un cambio de precio o stock siempre cambia la huella,
+    // aunque la fecha de actualizacion no se mueva
+    private static void agregarContenido(MessageDigest digest, ProductoResponse producto) {
+        Object[] campos = {
+                producto.getId(), producto.getVersion(), producto.getNombre(), producto.getDescripcion(),
+                producto.getCategoria(), producto.getPrecio(), producto.getStock(), producto.getSku(),
+                producto.getImagen(), producto.getActivo(), producto.getFechaCreacion(),
+                producto.getFechaActualizacion()
+        };
+        for (Object campo : campos) {
+            digest.update(String.valueOf(campo).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0x1F);
+        }
+        digest.update((byte) 0x1E);
+    }
+
+    private static MessageDigest nuevoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static CatalogoSnapshot vacio() {
+        return new CatalogoSnapshot(0, new HashMap<>());
+    }
+
+    CatalogoSnapshot reemplazarTodo(Collection<ProductoResponse> activos) {
+        Map<Long, ProductoResponse> nuevos = new HashMap<>();
+        for (ProductoResponse producto : activos) {
+            if (Boolean.TRUE.equals(producto.getActivo())) {
+                nuevos.put(producto.getId(), producto);
+            }
+        }
+        return new CatalogoSnapshot(version + 1, nuevos);
+    }
+
+    CatalogoSnapshot aplicar(ProductoResponse producto) {
+        ProductoResponse actual = porId.get(producto.getId());
+        if (actual != null && esAnterior(producto, actual)) {
+            // Un commit mas antiguo llego tarde: no debe pisar el estado vigente
+            return this;
+        }
+        Map<Long, ProductoResponse> nuevos = new HashMap<>(porId);
+        if (Boolean.TRUE.equals(producto.getActivo())) {
+            nuevos.put(producto.getId(), producto);
+        } else {
+            nuevos.remove(producto.getId());
+        }
+        return new CatalogoSnapshot(version + 1, nuevos);
+    }
+
+    // Se compara la version de la fila y no la fecha: el reloj no garantiza el orden de los commits
+    private static boolean esAnterior(ProductoResponse candidato, ProductoResponse actual) {
+        Long versionCandidato = candidato.getVersion();
+        Long versionActual = actual.getVersion();
+        return versionCandidato != null && versionActual != null && versionCandidato < versionActual;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getHuella() {
+        return huella;
+    }
+
+    public List<ProductoResponse> getProductos() {
+        return productos;
+    }
+
+    public Optional<ProductoResponse> buscar(Long id) {
+        return Optional.ofNullable(porId.get(id));
+    }
+
+    public int size() {
+        return productos.size();
+    }
+}
@@ -0,0 +1,214 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.EventoCatalogoResponse;
+import com.seedstoroots.app.dto.ProductoResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Difunde por SSE los cambios del catalogo y del stock a las conexiones abiertas. Los eventos
+ * no se envian al llegar: cada conexion tiene un buffer acotado que se vacia periodicamente,
+ * y varios cambios seguidos del mismo producto se combinan en el ultimo. Una conexion
+ * inactiva solo ocupa su SseEmitter y un buffer vacio; los envios y latidos corren en un pool
+ * propio de tamano fijo, asi un cliente lento no ocupa los hilos de la exportacion ni de
+ * @Async. El timeout es propio de cada SseEmitter y no depende del de Spring MVC.
+ */
+@Component
+public class DifusionCatalogo {
+
+    static final String RECARGA = "recarga";
+
+    private final Map<Long, Suscripcion> suscripciones = new ConcurrentHashMap<>();
+    private final AtomicLong siguienteId = new AtomicLong();
+    private final Executor executor;
+    private final int capacidadBuffer;
+    private final long timeoutMs;
+
+    @Autowired
+    public DifusionCatalogo(@Value("${catalogo.stream.hilos:4}") int hilos,
+                            @Value("${catalogo.stream.buffer:256}") int capacidadBuffer,
+                            @Value("${catalogo.stream.timeout-ms:1800000}") long timeoutMs) {
+        this(crearPool(hilos), capacidadBuffer, timeoutMs);
+    }
+
+    DifusionCatalogo(Executor executor, int capacidadBuffer, long timeoutMs) {
+        this.executor = executor;
+        this.capacidadBuffer = capacidadBuffer;
+        this.timeoutMs = timeoutMs;
+    }
+
+    // La cola no necesita limite: cada conexion tiene a lo sumo un envio pendiente
+    private static ExecutorService crearPool(int hilos) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("difusion-sse-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdown();
+        }
+    }
+
+    public SseEmitter suscribir() {
+        long id = siguienteId.incrementAndGet();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscripcion suscripcion = new Suscripcion(emitter, capacidadBuffer);
+        suscripciones.put(id, suscripcion);
+        emitter.onCompletion(() -> suscripciones.remove(id));
+        emitter.onTimeout(() -> suscripciones.remove(id));
+        emitter.onError(error -> suscripciones.remove(id));
+        return emitter;
+    }
+
+    public int conexionesAbiertas() {
+        return suscripciones.size();
+    }
+
+    @EventListener
+    public void alCambiarProducto(ProductoAplicadoEvento evento) {
+        ProductoResponse producto = evento.producto();
+        encolarEnTodas("producto:" + producto.getId(), new EventoCatalogoResponse(
+                "producto", producto.getId(), producto.getPrecio(), producto.getStock(), producto.getActivo()));
+    }
+
+    // Despues del commit o del rollback: una validacion fallida tambien informa el stock real
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void alVerificarStock(StockVerificadoEvento evento) {
+        encolarEnTodas("stock:" + evento.productoId(), new EventoCatalogoResponse(
+                "stock", evento.productoId(), null, evento.stock(), null));
+    }
+
+    @EventListener
+    public void alCruzarUmbralStock(StockBajoEvento evento) {
+        encolarEnTodas("bajo-stock:" + evento.productoId(), new EventoCatalogoResponse(
+                evento.bajo() ? "bajo-stock" : "stock-repuesto", evento.productoId(), null, evento.stock(), null));
+    }
+
+    // Tras una operacion masiva los clientes vuelven a pedir el catalogo; lo pendiente ya no sirve
+    @EventListener
+    public void alRecargarCatalogo(CatalogoReconstruidoEvento evento) {
+        for (Suscripcion suscripcion : suscripciones.values()) {
+            suscripcion.pedirRecarga();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalogo.stream.intervalo-ms:250}")
+    public void enviarPendientes() {
+        suscripciones.forEach((id, suscripcion) -> {
+            if (suscripcion.tienePendientes()) {
+                programarEnvio(id, suscripcion, false);
+            }
+        });
+    }
+
+    // Un comentario periodico mantiene vivas las conexiones detras de proxies y detecta clientes caidos
+    @Scheduled(fixedRateString = "${catalogo.stream.heartbeat-ms:30000}")
+    public void mantenerConexiones() {
+        suscripciones.forEach((id, suscripcion) -> programarEnvio(id, suscripcion, true));
+    }
+
+    private void encolarEnTodas(String clave, EventoCatalogoResponse evento) {
+        for (Suscripcion suscripcion : suscripciones.values()) {
+            suscripcion.encolar(clave, evento);
+        }
+    }
+
+    private void programarEnvio(Long id, Suscripcion suscripcion, boolean latido) {
+        // Un solo envio a la vez por conexion; si ya hay uno en curso, lo nuevo sale en la proxima vuelta
+        if (!suscripcion.enviando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> enviar(id, suscripcion, latido));
+        } catch (RejectedExecutionException e) {
+            // Solo ocurre al cerrar la aplicacion
+            suscripcion.enviando.set(false);
+        }
+    }
+
+    private void enviar(Long id, Suscripcion suscripcion, boolean latido) {
+        try {
+            for (EventoCatalogoResponse evento : suscripcion.tomarPendientes()) {
+                suscripcion.emitter.send(SseEmitter.event()
+                        .name(evento.getTipo())
+                        .data(evento, MediaType.APPLICATION_JSON));
+            }
+            if (latido) {
+                suscripcion.emitter.send(SseEmitter.event().comment("ping"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            suscripciones.remove(id);
+            suscripcion.emitter.completeWithError(e);
+        } finally {
+            suscripcion.enviando.set(false);
+        }
+    }
+
+    static final class Suscripcion {
+
+        private final SseEmitter emitter;
+        private final int capacidad;
+        private final AtomicBoolean enviando = new AtomicBoolean(false);
+        // Orden de llegada; al reemplazar un evento se mueve al final
+        private final LinkedHashMap<String, EventoCatalogoResponse> pendientes = new LinkedHashMap<>();
+
+        Suscripcion(SseEmitter emitter, int capacidad) {
+            this.emitter = emitter;
+            this.capacidad = capacidad;
+        }
+
+        synchronized void encolar(String clave, EventoCatalogoResponse evento) {
+            if (pendientes.containsKey(RECARGA)) {
+                return;
+            }
+            pendientes.remove(clave);
+            pendientes.put(clave, evento);
+            // Un cliente que no alcanza a leer no acumula memoria: se le pide recargar
+            if (pendientes.size() > capacidad) {
+                pedirRecarga();
+            }
+        }
+
+        synchronized void pedirRecarga() {
+            pendientes.clear();
+            pendientes.put(RECARGA, new EventoCatalogoResponse(RECARGA, null, null, null, null));
+        }
+
+        synchronized boolean tienePendientes() {
+            return !pendientes.isEmpty();
+        }
+
+        synchronized List<EventoCatalogoResponse> tomarPendientes() {
+            List<EventoCatalogoResponse> eventos = new ArrayList<>(pendientes.values());
+            pendientes.clear();
+            return eventos;
+        }
+    }
+}
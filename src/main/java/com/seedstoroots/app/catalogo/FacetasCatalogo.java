@@ -0,0 +1,152 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import com.seedstoroots.app.dto.RangoPrecioResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Conteos por categoria y por rango de precio de los productos activos, mantenidos con
+ * los eventos del catalogo para no ejecutar un GROUP BY en cada request.
+ */
+@Component
+public class FacetasCatalogo {
+
+    public static final String SIN_CATEGORIA = "Sin categoría";
+
+    private final BigDecimal[] limitesPrecio;
+
+    private final Map<Long, Ubicacion> ubicaciones = new HashMap<>();
+    private final Map<String, Set<Long>> idsPorCategoria = new HashMap<>();
+    private final Map<String, long[]> rangosPorCategoria = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FacetasCatalogo(@Value("${catalogo.facetas.rangos-precio:5000,10000,20000,50000}") BigDecimal[] limitesPrecio) {
+        this.limitesPrecio = limitesPrecio.clone();
+        Arrays.sort(this.limitesPrecio);
+    }
+
+    /**
+     * Conteos de todas las categorias, rangos de precio de la categoria pedida (o de todo
+     * el catalogo si es null) e ids de sus productos, leidos de forma consistente.
+     */
+    public Conteo contar(String categoria) {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> categorias = new TreeMap<>();
+            idsPorCategoria.forEach((nombre, ids) -> categorias.put(nombre, (long) ids.size()));
+
+            long[] rangos = new long[limitesPrecio.length + 1];
+            if (categoria == null) {
+                rangosPorCategoria.values().forEach(conteo -> {
+                    for (int i = 0; i < rangos.length; i++) {
+                        rangos[i] += conteo[i];
+                    }
+                });
+            } else if (rangosPorCategoria.containsKey(categoria)) {
+                System.arraycopy(rangosPorCategoria.get(categoria), 0, rangos, 0, rangos.length);
+            }
+
+            List<Long> ids = categoria == null
+                    ? List.of()
+                    : new ArrayList<>(idsPorCategoria.getOrDefault(categoria, Set.of()));
+            return new Conteo(categorias, aRangos(rangos), ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void alRecargarCatalogo(CatalogoReconstruidoEvento evento) {
+        lock.writeLock().lock();
+        try {
+            ubicaciones.clear();
+            idsPorCategoria.clear();
+            rangosPorCategoria.clear();
+            for (ProductoResponse producto : evento.activos()) {
+                if (Boolean.TRUE.equals(producto.getActivo())) {
+                    agregar(producto);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void alCambiarProducto(ProductoAplicadoEvento evento) {
+        ProductoResponse producto = evento.producto();
+        lock.writeLock().lock();
+        try {
+            quitar(producto.getId());
+            if (Boolean.TRUE.equals(producto.getActivo())) {
+                agregar(producto);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void agregar(ProductoResponse producto) {
+        String categoria = producto.getCategoria() != null ? producto.getCategoria() : SIN_CATEGORIA;
+        int rango = rangoDe(producto.getPrecio());
+        ubicaciones.put(producto.getId(), new Ubicacion(categoria, rango));
+        idsPorCategoria.computeIfAbsent(categoria, c -> new HashSet<>()).add(producto.getId());
+        rangosPorCategoria.computeIfAbsent(categoria, c -> new long[limitesPrecio.length + 1])[rango]++;
+    }
+
+    private void quitar(Long id) {
+        Ubicacion ubicacion = ubicaciones.remove(id);
+        if (ubicacion == null) {
+            return;
+        }
+        Set<Long> ids = idsPorCategoria.get(ubicacion.categoria());
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            idsPorCategoria.remove(ubicacion.categoria());
+            rangosPorCategoria.remove(ubicacion.categoria());
+        } else {
+            rangosPorCategoria.get(ubicacion.categoria())[ubicacion.rango()]--;
+        }
+    }
+
+    private int rangoDe(BigDecimal precio) {
+        if (precio == null) {
+            return 0;
+        }
+        int rango = 0;
+        while (rango < limitesPrecio.length && precio.compareTo(limitesPrecio[rango]) >= 0) {
+            rango++;
+        }
+        return rango;
+    }
+
+    private List<RangoPrecioResponse> aRangos(long[] conteos) {
+        List<RangoPrecioResponse> rangos = new ArrayList<>(conteos.length);
+        for (int i = 0; i < conteos.length; i++) {
+            BigDecimal desde = i == 0 ? BigDecimal.ZERO : limitesPrecio[i - 1];
+            BigDecimal hasta = i < limitesPrecio.length ? limitesPrecio[i] : null;
+            rangos.add(new RangoPrecioResponse(desde, hasta, conteos[i]));
+        }
+        return rangos;
+    }
+
+    private record Ubicacion(String categoria, int rango) {
+    }
+
+    public record Conteo(Map<String, Long> categorias, List<RangoPrecioResponse> rangosPrecio, List<Long> ids) {
+    }
+}
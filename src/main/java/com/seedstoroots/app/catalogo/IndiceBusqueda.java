@@ -0,0 +1,154 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice invertido en memoria sobre nombre, descripcion y categoria de los productos activos.
+ * Los resultados se ordenan con BM25; las palabras del nombre cuentan doble para que una
+ * coincidencia en el titulo pese mas que una mencion en la descripcion.
+ */
+@Component
+public class IndiceBusqueda {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int PESO_NOMBRE = 2;
+
+    // termino -> (id producto -> frecuencia del termino en el producto)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    // id producto -> frecuencias de sus terminos, necesarias para quitarlo del indice
+    private final Map<Long, Map<String, Integer>> documentos = new HashMap<>();
+    private final Map<Long, Integer> longitudes = new HashMap<>();
+    private long longitudTotal = 0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public List<Long> buscar(String consulta, int limit) {
+        List<String> terminos = TextoNormalizado.terminos(consulta);
+        if (terminos.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int totalDocumentos = documentos.size();
+            if (totalDocumentos == 0) {
+                return List.of();
+            }
+            double longitudPromedio = (double) longitudTotal / totalDocumentos;
+
+            Map<Long, Double> puntajes = new HashMap<>();
+            for (String termino : terminos) {
+                Map<Long, Integer> frecuencias = postings.get(termino);
+                if (frecuencias == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (totalDocumentos - frecuencias.size() + 0.5) / (frecuencias.size() + 0.5));
+                for (Map.Entry<Long, Integer> entrada : frecuencias.entrySet()) {
+                    int tf = entrada.getValue();
+                    double normalizacion = K1 * (1 - B + B * longitudes.get(entrada.getKey()) / longitudPromedio);
+                    puntajes.merge(entrada.getKey(), idf * tf * (K1 + 1) / (tf + normalizacion), Double::sum);
+                }
+            }
+            return mejores(puntajes, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void alRecargarCatalogo(CatalogoReconstruidoEvento evento) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentos.clear();
+            longitudes.clear();
+            longitudTotal = 0;
+            for (ProductoResponse producto : evento.activos()) {
+                if (Boolean.TRUE.equals(producto.getActivo())) {
+                    agregar(producto);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void alCambiarProducto(ProductoAplicadoEvento evento) {
+        ProductoResponse producto = evento.producto();
+        lock.writeLock().lock();
+        try {
+            quitar(producto.getId());
+            if (Boolean.TRUE.equals(producto.getActivo())) {
+                agregar(producto);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void agregar(ProductoResponse producto) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        for (String termino : TextoNormalizado.terminos(producto.getNombre())) {
+            frecuencias.merge(termino, PESO_NOMBRE, Integer::sum);
+        }
+        for (String termino : TextoNormalizado.terminos(producto.getDescripcion())) {
+            frecuencias.merge(termino, 1, Integer::sum);
+        }
+        for (String termino : TextoNormalizado.terminos(producto.getCategoria())) {
+            frecuencias.merge(termino, 1, Integer::sum);
+        }
+
+        int longitud = 0;
+        for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+            postings.computeIfAbsent(entrada.getKey(), t -> new HashMap<>())
+                    .put(producto.getId(), entrada.getValue());
+            longitud += entrada.getValue();
+        }
+        documentos.put(producto.getId(), frecuencias);
+        longitudes.put(producto.getId(), longitud);
+        longitudTotal += longitud;
+    }
+
+    private void quitar(Long id) {
+        Map<String, Integer> frecuencias = documentos.remove(id);
+        if (frecuencias == null) {
+            return;
+        }
+        for (String termino : frecuencias.keySet()) {
+            Map<Long, Integer> productos = postings.get(termino);
+            productos.remove(id);
+            if (productos.isEmpty()) {
+                postings.remove(termino);
+            }
+        }
+        longitudTotal -= longitudes.remove(id);
+    }
+
+    private List<Long> mejores(Map<Long, Double> puntajes, int limit) {
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> entrada : puntajes.entrySet()) {
+            top.offer(entrada);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add(top.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+}
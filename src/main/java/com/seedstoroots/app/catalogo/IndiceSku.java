@@ -0,0 +1,58 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indice SKU -> id de los productos activos. Las consultas son una lectura de un
+ * ConcurrentHashMap sin locks; las escrituras llegan por los eventos del catalogo y se
+ * serializan entre si. Se guarda tambien id -> SKU para quitar el SKU anterior cuando
+ * un producto cambia de SKU.
+ */
+@Component
+public class IndiceSku {
+
+    private volatile Map<String, Long> idPorSku = new ConcurrentHashMap<>();
+    private volatile Map<Long, String> skuPorId = new ConcurrentHashMap<>();
+
+    public Optional<Long> buscar(String sku) {
+        return sku == null ? Optional.empty() : Optional.ofNullable(idPorSku.get(sku.trim()));
+    }
+
+    public int size() {
+        return idPorSku.size();
+    }
+
+    // Se arma aparte y se publica completo, asi los lectores nunca ven un indice a medio llenar
+    @EventListener
+    public synchronized void alRecargarCatalogo(CatalogoReconstruidoEvento evento) {
+        Map<String, Long> nuevoIdPorSku = new ConcurrentHashMap<>();
+        Map<Long, String> nuevoSkuPorId = new ConcurrentHashMap<>();
+        for (ProductoResponse producto : evento.activos()) {
+            if (Boolean.TRUE.equals(producto.getActivo()) && producto.getSku() != null) {
+                nuevoIdPorSku.put(producto.getSku(), producto.getId());
+                nuevoSkuPorId.put(producto.getId(), producto.getSku());
+            }
+        }
+        idPorSku = nuevoIdPorSku;
+        skuPorId = nuevoSkuPorId;
+    }
+
+    @EventListener
+    public synchronized void alCambiarProducto(ProductoAplicadoEvento evento) {
+        ProductoResponse producto = evento.producto();
+        String anterior = skuPorId.remove(producto.getId());
+        if (anterior != null) {
+            idPorSku.remove(anterior, producto.getId());
+        }
+        if (Boolean.TRUE.equals(producto.getActivo()) && producto.getSku() != null) {
+            idPorSku.put(producto.getSku(), producto.getId());
+            skuPorId.put(producto.getId(), producto.getSku());
+        }
+    }
+}
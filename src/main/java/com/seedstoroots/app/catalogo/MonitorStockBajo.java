@@ -0,0 +1,140 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoBajoStockResponse;
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Productos activos con stock bajo su umbral, ordenados del menor stock al mayor. Se mantiene
+ * con los eventos del catalogo, asi el dashboard no cuenta filas en cada refresco. El umbral
+ * es el de la categoria del producto si esta configurado, o el general en otro caso.
+ * Los cambios individuales que cruzan el umbral se publican como StockBajoEvento; una recarga
+ * completa no los publica, los clientes ya reciben el evento de recarga.
+ */
+@Component
+public class MonitorStockBajo {
+
+    private static final Comparator<Entrada> ORDEN_STOCK = Comparator
+            .comparingInt(Entrada::stock)
+            .thenComparing(Entrada::id);
+
+    private final int umbralGeneral;
+    private final Map<String, Integer> umbralesPorCategoria;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Las lecturas recorren el set sin locks; las escrituras se serializan entre si
+    private final NavigableSet<Entrada> ordenados = new ConcurrentSkipListSet<>(ORDEN_STOCK);
+    private final Map<Long, Entrada> porId = new ConcurrentHashMap<>();
+
+    public MonitorStockBajo(@Value("${catalogo.bajo-stock.umbral:10}") int umbralGeneral,
+                            @Value("${catalogo.bajo-stock.umbrales-categoria:}") String[] umbralesPorCategoria,
+                            ApplicationEventPublisher eventPublisher) {
+        this.umbralGeneral = umbralGeneral;
+        this.umbralesPorCategoria = leerUmbrales(umbralesPorCategoria);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public int contar() {
+        return porId.size();
+    }
+
+    public List<ProductoBajoStockResponse> listar() {
+        List<ProductoBajoStockResponse> productos = new ArrayList<>(porId.size());
+        for (Entrada entrada : ordenados) {
+            productos.add(new ProductoBajoStockResponse(entrada.id(), entrada.nombre(), entrada.sku(),
+                    entrada.categoria(), entrada.stock(), entrada.umbral()));
+        }
+        return productos;
+    }
+
+    public int umbralDe(String categoria) {
+        return umbralesPorCategoria.getOrDefault(TextoNormalizado.plegar(categoria).trim(), umbralGeneral);
+    }
+
+    @EventListener
+    public synchronized void alRecargarCatalogo(CatalogoReconstruidoEvento evento) {
+        ordenados.clear();
+        porId.clear();
+        for (ProductoResponse producto : evento.activos()) {
+            Entrada entrada = entradaDe(producto);
+            if (entrada != null) {
+                ordenados.add(entrada);
+                porId.put(entrada.id(), entrada);
+            }
+        }
+    }
+
+    @EventListener
+    public void alCambiarProducto(ProductoAplicadoEvento evento) {
+        StockBajoEvento cruce;
+        synchronized (this) {
+            cruce = actualizar(evento.producto());
+        }
+        if (cruce != null) {
+            eventPublisher.publishEvent(cruce);
+        }
+    }
+
+    private StockBajoEvento actualizar(ProductoResponse producto) {
+        Entrada anterior = porId.remove(producto.getId());
+        if (anterior != null) {
+            ordenados.remove(anterior);
+        }
+        Entrada nueva = entradaDe(producto);
+        if (nueva != null) {
+            ordenados.add(nueva);
+            porId.put(nueva.id(), nueva);
+        }
+
+        if (anterior == null && nueva != null) {
+            return new StockBajoEvento(nueva.id(), nueva.stock(), nueva.umbral(), true);
+        }
+        if (anterior != null && nueva == null) {
+            return new StockBajoEvento(anterior.id(), producto.getStock(), anterior.umbral(), false);
+        }
+        return null;
+    }
+
+    // null si el producto no debe estar en la lista
+    private Entrada entradaDe(ProductoResponse producto) {
+        if (!Boolean.TRUE.equals(producto.getActivo())) {
+            return null;
+        }
+        int stock = producto.getStock() != null ? producto.getStock() : 0;
+        int umbral = umbralDe(producto.getCategoria());
+        if (stock >= umbral) {
+            return null;
+        }
+        return new Entrada(producto.getId(), producto.getNombre(), producto.getSku(),
+                producto.getCategoria(), stock, umbral);
+    }
+
+    // "Semillas:20,Herramientas:5" -> {semillas=20, herramientas=5}
+    private static Map<String, Integer> leerUmbrales(String[] valores) {
+        Map<String, Integer> umbrales = new HashMap<>();
+        for (String valor : valores) {
+            int separador = valor.lastIndexOf(':');
+            if (separador <= 0) {
+                continue;
+            }
+            umbrales.put(TextoNormalizado.plegar(valor.substring(0, separador)).trim(),
+                    Integer.parseInt(valor.substring(separador + 1).trim()));
+        }
+        return Map.copyOf(umbrales);
+    }
+
+    private record Entrada(Long id, String nombre, String sku, String categoria, int stock, int umbral) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+
+/**
+ * Cambio de un producto que CatalogoCache ya aplico a su snapshot. Se publica en el mismo
+ * orden que el snapshot y nunca con una version anterior a la ultima aplicada, asi los
+ * indices derivados que lo escuchan no retroceden con un commit que llego tarde.
+ */
+public record ProductoAplicadoEvento(ProductoEvento.Tipo tipo, ProductoResponse producto) {
+}
@@ -0,0 +1,17 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+
+/**
+ * Cambio de un producto publicado por ProductoServiceImpl. CatalogoCache lo escucha despues
+ * del commit y, si no es mas antiguo que lo ya aplicado, lo reenvia como ProductoAplicadoEvento
+ * a los demas componentes en memoria del catalogo.
+ */
+public record ProductoEvento(Tipo tipo, ProductoResponse producto) {
+
+    public enum Tipo {
+        CREADO,
+        ACTUALIZADO,
+        ELIMINADO
+    }
+}
@@ -0,0 +1,104 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Top-N acotado de los productos activos mas recientes. Se mantiene con los eventos de
+ * creacion y desactivacion, asi /recientes responde en O(limit) sin leer todo el catalogo.
+ * Tras una desactivacion el top queda con un elemento menos pero sigue siendo exacto;
+ * cuando no alcanza para un pedido se rellena desde la base de datos.
+ */
+@Component
+public class ProductosRecientes {
+
+    private final int capacidad;
+
+    // Lista inmutable ordenada del mas reciente al mas antiguo; se reemplaza completa en cada cambio
+    private volatile List<ProductoResponse> top = List.of();
+    // true cuando el top contiene todos los productos activos del catalogo
+    private volatile boolean catalogoCompleto = false;
+    private long generacion = 0;
+
+    public ProductosRecientes(@Value("${catalogo.recientes.capacidad:50}") int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Devuelve los primeros productos si el top alcanza para cubrir el limite pedido.
+     */
+    public Optional<List<ProductoResponse>> obtener(int limit) {
+        List<ProductoResponse> actual = top;
+        if (limit <= actual.size()) {
+            return Optional.of(actual.subList(0, limit));
+        }
+        return catalogoCompleto ? Optional.of(actual) : Optional.empty();
+    }
+
+    public synchronized long generacionActual() {
+        return generacion;
+    }
+
+    /**
+     * Reemplaza el top con el resultado de una consulta acotada. Se descarta si hubo cambios
+     * desde que se leyo la generacion, para no pisar un evento aplicado mientras tanto.
+     */
+    public synchronized void recargar(List<ProductoResponse> recientes, boolean completo, long generacionLeida) {
+        if (generacionLeida != generacion) {
+            return;
+        }
+        top = Collections.unmodifiableList(new ArrayList<>(
+                recientes.subList(0, Math.min(capacidad, recientes.size()))));
+        catalogoCompleto = completo && recientes.size() <= capacidad;
+        generacion++;
+    }
+
+    @EventListener
+    public synchronized void alRecargarCatalogo(CatalogoReconstruidoEvento evento) {
+        List<ProductoResponse> activos = new ArrayList<>(evento.activos());
+        activos.removeIf(p -> !Boolean.TRUE.equals(p.getActivo()));
+        activos.sort(CatalogoSnapshot.ORDEN_RECIENTES);
+        top = Collections.unmodifiableList(new ArrayList<>(activos.subList(0, Math.min(capacidad, activos.size()))));
+        catalogoCompleto = activos.size() <= capacidad;
+        generacion++;
+    }
+
+    @EventListener
+    public synchronized void alCambiarProducto(ProductoAplicadoEvento evento) {
+        ProductoResponse producto = evento.producto();
+        List<ProductoResponse> nuevo = new ArrayList<>(top);
+        boolean presente = nuevo.removeIf(p -> p.getId().equals(producto.getId()));
+
+        if (Boolean.TRUE.equals(producto.getActivo()) && (presente || perteneceAlTop(producto))) {
+            int posicion = Collections.binarySearch(nuevo, producto, CatalogoSnapshot.ORDEN_RECIENTES);
+            nuevo.add(posicion < 0 ? -posicion - 1 : posicion, producto);
+            if (nuevo.size() > capacidad) {
+                nuevo.remove(nuevo.size() - 1);
+                catalogoCompleto = false;
+            }
+        }
+
+        top = Collections.unmodifiableList(nuevo);
+        generacion++;
+    }
+
+    // Solo entra si es mas reciente que el ultimo conocido; si no, podria haber otros entre medio
+    private boolean perteneceAlTop(ProductoResponse producto) {
+        if (catalogoCompleto || top.isEmpty()) {
+            return catalogoCompleto;
+        }
+        ProductoResponse ultimo = top.get(top.size() - 1);
+        return CatalogoSnapshot.ORDEN_RECIENTES.compare(producto, ultimo) < 0;
+    }
+}
@@ -0,0 +1,8 @@
+package com.seedstoroots.app.catalogo;
+
+/**
+ * Un producto activo cruzo su umbral de stock: entro a la lista de bajo stock (bajo = true)
+ * o salio de ella por reposicion, desactivacion o eliminacion (bajo = false).
+ */
+public record StockBajoEvento(Long productoId, Integer stock, int umbral, boolean bajo) {
+}
@@ -0,0 +1,8 @@
+package com.seedstoroots.app.catalogo;
+
+/**
+ * Stock leido al validar una cantidad en el carrito. Sirve para avisar a las vistas abiertas
+ * cuando quedan pocas unidades o el stock ya no alcanza.
+ */
+public record StockVerificadoEvento(Long productoId, Integer stock, int cantidadSolicitada) {
+}
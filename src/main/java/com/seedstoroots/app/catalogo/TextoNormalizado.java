@@ -0,0 +1,54 @@
+package com.seedstoroots.app.catalogo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizacion de texto compartida por los indices del catalogo: minusculas, sin tildes
+ * ni dieresis ("Jardín" y "jardin" son el mismo termino) y separacion en palabras.
+ */
+public final class TextoNormalizado {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "lo", "los",
+            "o", "para", "por", "se", "su", "un", "una", "y"
+    );
+
+    private TextoNormalizado() {
+    }
+
+    public static String plegar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinMarcas = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("");
+        return sinMarcas.toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> palabras(String texto) {
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : SEPARADORES.split(plegar(texto))) {
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    /**
+     * Palabras utiles para busqueda: sin articulos ni preposiciones frecuentes.
+     */
+    public static List<String> terminos(String texto) {
+        List<String> terminos = palabras(texto);
+        terminos.removeIf(PALABRAS_VACIAS::contains);
+        return terminos;
+    }
+}
@@ -0,0 +1,10 @@
+package com.seedstoroots.app.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita las tareas periodicas en memoria (envio de eventos SSE, mantenimiento de caches)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
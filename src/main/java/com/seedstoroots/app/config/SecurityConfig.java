@@ -1,6 +1,7 @@
 package com.seedstoroots.app.config;
 
 import com.seedstoroots.app.security.filters.JwtAuthenticationFilter;
+import com.seedstoroots.app.security.filters.LimiteIntentosFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,9 +17,12 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final LimiteIntentosFilter limiteIntentosFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          LimiteIntentosFilter limiteIntentosFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.limiteIntentosFilter = limiteIntentosFilter;
     }
 
     @Bean
@@ -53,7 +57,10 @@ public class SecurityConfig {
                 )
 
                 // Filtro JWT
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+
+                // Limite de intentos de login y registro, antes de procesar el token
+                .addFilterBefore(limiteIntentosFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
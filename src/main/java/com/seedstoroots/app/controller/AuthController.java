@@ -3,6 +3,7 @@ package com.seedstoroots.app.controller;
 import com.seedstoroots.app.dto.AuthResponse;
 import com.seedstoroots.app.dto.LoginRequest;
 import com.seedstoroots.app.dto.RegisterRequest;
+import com.seedstoroots.app.exception.ServicioSaturadoException;
 import com.seedstoroots.app.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +11,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -40,6 +43,10 @@ public class AuthController {
             @ApiResponse(
                     responseCode = "400",
                     description = "Credenciales inválidas"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Hashing de contraseñas saturado; reintentar tras Retry-After"
             )
     })
     @PostMapping("/login")
@@ -47,6 +54,10 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (ServicioSaturadoException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSegundos()))
+                    .build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -68,6 +79,10 @@ public class AuthController {
             @ApiResponse(
                     responseCode = "400",
                     description = "Email o RUN ya registrado"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Hashing de contraseñas saturado; reintentar tras Retry-After"
             )
     })
     @PostMapping("/register")
@@ -75,6 +90,10 @@ public class AuthController {
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.ok(response);
+        } catch (ServicioSaturadoException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSegundos()))
+                    .build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
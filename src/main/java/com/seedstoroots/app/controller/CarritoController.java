@@ -3,6 +3,7 @@ package com.seedstoroots.app.controller;
 import com.seedstoroots.app.dto.CarritoRequest;
 import com.seedstoroots.app.dto.CarritoResponse;
 import com.seedstoroots.app.dto.UsuarioResponse;
+import com.seedstoroots.app.security.jwt.UsuarioPrincipal;
 import com.seedstoroots.app.service.CarritoService;
 import com.seedstoroots.app.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,7 +36,7 @@ public class CarritoController {
 
     @Operation(
             summary = "Obtener carrito del usuario",
-            description = "Obtiene el carrito activo del usuario con todos sus items. Si no existe, se crea uno nuevo."
+            description = "Obtiene el carrito activo del usuario con todos sus items. Si no existe, devuelve un carrito vacío sin id; el carrito se crea al agregar el primer producto."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -194,11 +195,149 @@ public class CarritoController {
         }
     }
 
+    @Operation(
+            summary = "Obtener mi carrito",
+            description = "Igual que GET /api/carrito/{usuarioId}, pero toma el usuario del token; no requiere consultar la base de datos para verificar la propiedad del carrito."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Carrito obtenido exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CarritoResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Usuario no encontrado"
+            )
+    })
+    @GetMapping("/me")
+    public ResponseEntity<CarritoResponse> obtenerMiCarrito() {
+        try {
+            return ResponseEntity.ok(carritoService.obtenerCarrito(obtenerUsuarioAutenticadoId()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @Operation(
+            summary = "Agregar producto a mi carrito",
+            description = "Agrega un producto al carrito del usuario del token. Si el producto ya existe, incrementa la cantidad."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Producto agregado exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CarritoResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Producto no encontrado o datos inválidos"
+            )
+    })
+    @PostMapping("/me/add")
+    public ResponseEntity<CarritoResponse> agregarProductoAMiCarrito(@RequestBody CarritoRequest request) {
+        try {
+            return ResponseEntity.ok(carritoService.agregarProducto(obtenerUsuarioAutenticadoId(), request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(
+            summary = "Actualizar cantidad en mi carrito",
+            description = "Actualiza la cantidad de un producto en el carrito del usuario del token (reemplaza la cantidad, no suma)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Cantidad actualizada exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CarritoResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Producto no encontrado en el carrito"
+            )
+    })
+    @PutMapping("/me/update")
+    public ResponseEntity<CarritoResponse> actualizarCantidadEnMiCarrito(@RequestBody CarritoRequest request) {
+        try {
+            return ResponseEntity.ok(carritoService.actualizarCantidad(obtenerUsuarioAutenticadoId(), request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(
+            summary = "Eliminar producto de mi carrito",
+            description = "Elimina un producto específico del carrito del usuario del token."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Producto eliminado exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CarritoResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Producto no encontrado en el carrito"
+            )
+    })
+    @DeleteMapping("/me/remove/{productoId}")
+    public ResponseEntity<CarritoResponse> eliminarProductoDeMiCarrito(
+            @Parameter(description = "ID del producto a eliminar", required = true)
+            @PathVariable Long productoId) {
+        try {
+            return ResponseEntity.ok(carritoService.eliminarProducto(obtenerUsuarioAutenticadoId(), productoId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @Operation(
+            summary = "Vaciar mi carrito",
+            description = "Elimina todos los productos del carrito del usuario del token."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Carrito vaciado exitosamente"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Usuario no encontrado"
+            )
+    })
+    @DeleteMapping("/me/clear")
+    public ResponseEntity<Void> limpiarMiCarrito() {
+        try {
+            carritoService.limpiarCarrito(obtenerUsuarioAutenticadoId());
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // El id viene del token ya verificado; solo los tokens emitidos sin userId requieren buscar por email
     private Long obtenerUsuarioAutenticadoId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new RuntimeException("Usuario no autenticado");
         }
+        if (authentication.getPrincipal() instanceof UsuarioPrincipal principal && principal.userId() != null) {
+            return principal.userId();
+        }
         UsuarioResponse usuario = usuarioService.obtenerPorEmail(authentication.getName());
         return usuario.getId();
     }
@@ -1,8 +1,11 @@
 package com.seedstoroots.app.controller;
 
+import com.seedstoroots.app.dto.EstadisticasHashingResponse;
 import com.seedstoroots.app.dto.EstadisticasResponse;
+import com.seedstoroots.app.dto.ProductoBajoStockResponse;
 import com.seedstoroots.app.service.EstadisticasService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,6 +15,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/estadisticas")
 @Tag(name = "Estadísticas", description = "Dashboard de estadísticas del sistema")
@@ -46,4 +51,53 @@ public class EstadisticasController {
     public ResponseEntity<EstadisticasResponse> obtenerEstadisticas() {
         return ResponseEntity.ok(estadisticasService.obtenerEstadisticas());
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Listar productos con bajo stock",
+            description = "Obtiene los productos activos cuyo stock está bajo el umbral de su categoría (o el umbral " +
+                    "general), ordenados del menor stock al mayor. La lista se mantiene en memoria con cada cambio " +
+                    "de stock. Requiere rol ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lista obtenida exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductoBajoStockResponse.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "No autorizado - Requiere rol ADMIN"
+            )
+    })
+    @GetMapping("/bajo-stock")
+    public ResponseEntity<List<ProductoBajoStockResponse>> obtenerProductosBajoStock() {
+        return ResponseEntity.ok(estadisticasService.obtenerProductosBajoStock());
+    }
+
+    @Operation(
+            summary = "Estadísticas del hashing de contraseñas",
+            description = "Estado del pool que ejecuta BCrypt para login y registro: hilos, ocupación de la cola, " +
+                    "operaciones completadas y rechazadas, y tiempos promedio en cola y de hash. Requiere rol ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estadísticas obtenidas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = EstadisticasHashingResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "No autorizado - Requiere rol ADMIN"
+            )
+    })
+    @GetMapping("/hashing")
+    public ResponseEntity<EstadisticasHashingResponse> obtenerEstadisticasHashing() {
+        return ResponseEntity.ok(estadisticasService.obtenerEstadisticasHashing());
+    }
+}
@@ -1,21 +1,51 @@
 package com.seedstoroots.app.controller;
 
+import com.seedstoroots.app.catalogo.CatalogoPayloadCache;
+import com.seedstoroots.app.catalogo.CatalogoSnapshot;
+import com.seedstoroots.app.catalogo.DifusionCatalogo;
+import com.seedstoroots.app.dto.ActualizacionMasivaRequest;
+import com.seedstoroots.app.dto.ActualizacionMasivaResponse;
+import com.seedstoroots.app.dto.CambiosCatalogoResponse;
+import com.seedstoroots.app.dto.FacetasResponse;
+import com.seedstoroots.app.dto.ImportacionResponse;
+import com.seedstoroots.app.dto.PaginaResponse;
 import com.seedstoroots.app.dto.ProductoRequest;
 import com.seedstoroots.app.dto.ProductoResponse;
+import com.seedstoroots.app.dto.ProductoSummaryResponse;
+import com.seedstoroots.app.repository.FiltroProductos;
+import com.seedstoroots.app.service.ExportacionProductoService;
+import com.seedstoroots.app.service.ImportacionProductoService;
 import com.seedstoroots.app.service.ProductoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/productos")
@@ -23,14 +53,30 @@ import java.util.List;
 public class ProductoController {
 
     private final ProductoService productoService;
+    private final ImportacionProductoService importacionProductoService;
+    private final ExportacionProductoService exportacionProductoService;
+    private final DifusionCatalogo difusionCatalogo;
 
-    public ProductoController(ProductoService productoService) {
+    // Tiempo que un proxy o navegador puede reutilizar una respuesta publica del catalogo
+    @Value("${catalogo.cache-control.max-age:60}")
+    private long maxAgeSegundos;
+
+    @Value("${catalogo.exportacion.timeout-ms:600000}")
+    private long timeoutExportacionMs;
+
+    public ProductoController(ProductoService productoService,
+                              ImportacionProductoService importacionProductoService,
+                              ExportacionProductoService exportacionProductoService,
+                              DifusionCatalogo difusionCatalogo) {
         this.productoService = productoService;
+        this.importacionProductoService = importacionProductoService;
+        this.exportacionProductoService = exportacionProductoService;
+        this.difusionCatalogo = difusionCatalogo;
     }
 
     @Operation(
             summary = "Listar todos los productos",
-            description = "Obtiene la lista completa de productos del catálogo. Endpoint público."
+            description = "Obtiene la lista completa de productos activos del catálogo. Endpoint público."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -38,13 +84,192 @@ public class ProductoController {
                     description = "Lista de productos obtenida exitosamente",
                     content = @Content(
                             mediaType = "application/json",
-                            schema = @Schema(implementation = ProductoResponse.class)
+                            array = @ArraySchema(schema = @Schema(implementation = ProductoResponse.class))
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El catálogo no cambió desde el ETag enviado en If-None-Match"
+            )
+    })
+    // Sin parametros de listado se entrega el catalogo completo; con alguno responde obtenerPagina
+    @GetMapping(params = {"!size", "!cursor", "!categoria", "!precioMin", "!precioMax", "!enStock", "!orden"})
+    public ResponseEntity<byte[]> obtenerTodos(
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Los bytes vienen ya serializados; con If-None-Match vigente Spring responde 304 sin escribirlos
+        CatalogoPayloadCache.Payload payload = productoService.obtenerCatalogoSerializado();
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(cacheControlPublico());
+
+        if (aceptaGzip(acceptEncoding)) {
+            return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .eTag("catalogo-" + payload.huella() + "-gzip")
+                    .body(payload.gzip());
+        }
+        return respuesta.eTag("catalogo-" + payload.huella())
+                .body(payload.json());
+    }
+
+    @Operation(
+            summary = "Listar productos paginados y filtrados",
+            description = "Obtiene una página de productos activos. Se puede filtrar por categoría, rango de precio " +
+                    "y solo con stock, y ordenar por más recientes (por defecto), precio_asc o precio_desc; " +
+                    "el filtrado y el orden se resuelven en la base de datos. " +
+                    "Usa paginación por cursor: envía el valor 'next' de la respuesta anterior como 'cursor', " +
+                    "junto con los mismos filtros. " +
+                    "Cada elemento trae solo id, nombre, precio, imagen y stock; el detalle completo está en " +
+                    "/api/productos/{id}. El tamaño máximo de página es 100. Endpoint público."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de productos obtenida exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PaginaResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Cursor u orden inválido"
             )
     })
     @GetMapping
-    public ResponseEntity<List<ProductoResponse>> obtenerTodos() {
-        return ResponseEntity.ok(productoService.obtenerTodos());
+    public ResponseEntity<PaginaResponse<ProductoSummaryResponse>> obtenerPagina(
+            @Parameter(description = "Número de productos por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor 'next' devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Categoría exacta", example = "Semillas")
+            @RequestParam(required = false) String categoria,
+            @Parameter(description = "Precio mínimo (inclusive)")
+            @RequestParam(required = false) BigDecimal precioMin,
+            @Parameter(description = "Precio máximo (inclusive)")
+            @RequestParam(required = false) BigDecimal precioMax,
+            @Parameter(description = "Solo productos con stock disponible")
+            @RequestParam(defaultValue = "false") boolean enStock,
+            @Parameter(description = "Orden: recientes, precio_asc o precio_desc")
+            @RequestParam(defaultValue = "recientes") String orden) {
+        try {
+            FiltroProductos filtro = new FiltroProductos(categoria, precioMin, precioMax, enStock,
+                    FiltroProductos.Orden.valueOf(orden.toUpperCase(Locale.ROOT)));
+            return ResponseEntity.ok(productoService.obtenerPagina(filtro, cursor, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(
+            summary = "Cambios del catálogo desde una secuencia",
+            description = "Sincronización incremental: devuelve los productos activos creados o modificados " +
+                    "y los ids dados de baja después de la secuencia 'since'. Con since=0 entrega todo el catálogo " +
+                    "activo. Guarde el valor 'hasta' y envíelo como 'since' en la próxima llamada; si 'hayMas' es " +
+                    "true, repita de inmediato. Un cambio aparece aquí poco después de confirmarse (medio segundo por " +
+                    "defecto) y nunca con una secuencia menor a la ya entregada. Endpoint público."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Cambios obtenidos exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CambiosCatalogoResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<CambiosCatalogoResponse> obtenerCambios(
+            @Parameter(description = "Última secuencia sincronizada por el cliente", example = "0")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Número máximo de productos por respuesta (máximo 1000)", example = "500")
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(productoService.obtenerCambios(since, limit));
+    }
+
+    @Operation(
+            summary = "Stream de cambios del catálogo",
+            description = "Conexión Server-Sent Events que avisa los cambios de productos (evento 'producto': " +
+                    "precio, stock y estado), el stock leído al validar carritos (evento 'stock') y las " +
+                    "recargas completas tras operaciones masivas (evento 'recarga'). Los cambios seguidos " +
+                    "de un mismo producto se combinan en uno. Endpoint público."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stream abierto",
+                    content = @Content(mediaType = "text/event-stream")
+            )
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return difusionCatalogo.suscribir();
+    }
+
+    @Operation(
+            summary = "Exportar catálogo",
+            description = "Descarga los productos activos en NDJSON (un producto por línea) o CSV. " +
+                    "Las filas se leen con un cursor de la base de datos y se escriben a medida que llegan, " +
+                    "sin armar el catálogo completo en memoria. Se comprime con gzip si el cliente lo acepta. " +
+                    "Endpoint público."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Exportación en curso",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Formato no soportado"
+            )
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Formato de salida: ndjson o csv")
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @Parameter(hidden = true) HttpServletRequest request) {
+        ExportacionProductoService.Formato formatoSalida;
+        try {
+            formatoSalida = ExportacionProductoService.Formato.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Timeout propio de la exportacion; el resto de las peticiones asincronas conserva el de Spring MVC
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncWebRequest != null) {
+            asyncWebRequest.setTimeout(timeoutExportacionMs);
+        }
+
+        boolean gzip = aceptaGzip(acceptEncoding);
+        // Se ejecuta en un hilo aparte cuando Spring ya envio los encabezados
+        StreamingResponseBody cuerpo = salida -> {
+            OutputStream destino = gzip ? new GZIPOutputStream(salida, 8192) : salida;
+            exportacionProductoService.exportar(destino, formatoSalida);
+            if (gzip) {
+                ((GZIPOutputStream) destino).finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(formatoSalida == ExportacionProductoService.Formato.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"productos." + formato.toLowerCase(Locale.ROOT) + "\"");
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
     }
 
     @Operation(
@@ -60,6 +285,10 @@ public class ProductoController {
                             schema = @Schema(implementation = ProductoResponse.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El producto no cambió desde el ETag enviado en If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Producto no encontrado"
@@ -69,11 +298,51 @@ public class ProductoController {
     public ResponseEntity<ProductoResponse> obtenerPorId(
             @Parameter(description = "ID del producto", required = true)
             @PathVariable Long id) {
+        ProductoResponse producto;
+        try {
+            producto = productoService.obtenerPorId(id);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return respuestaProducto(producto);
+    }
+
+    @Operation(
+            summary = "Obtener producto por SKU",
+            description = "Resuelve un SKU desde un índice en memoria, sin consultar la base de datos para " +
+                    "productos activos. Pensado para lectores de código y sincronización con proveedores. " +
+                    "Endpoint público."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Producto encontrado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductoResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El producto no cambió desde el ETag enviado en If-None-Match"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Producto no encontrado"
+            )
+    })
+    @GetMapping("/sku/{sku}")
+    public ResponseEntity<ProductoResponse> obtenerPorSku(
+            @Parameter(description = "SKU del producto", required = true, example = "SEM-TOM-001")
+            @PathVariable String sku) {
+        ProductoResponse producto;
         try {
-            return ResponseEntity.ok(productoService.obtenerPorId(id));
+            producto = productoService.obtenerPorSku(sku);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
+        return respuestaProducto(producto);
     }
 
     @Operation(
@@ -88,13 +357,103 @@ public class ProductoController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = ProductoResponse.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El catálogo no cambió desde el ETag enviado en If-None-Match"
             )
     })
     @GetMapping("/recientes")
     public ResponseEntity<List<ProductoResponse>> obtenerRecientes(
             @Parameter(description = "Número de productos a retornar", example = "5")
-            @RequestParam(defaultValue = "5") int limit) {
-        return ResponseEntity.ok(productoService.obtenerRecientes(limit));
+            @RequestParam(defaultValue = "5") int limit,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // El 304 se decide antes de armar la lista, que puede tener que ir a la base de datos
+        String eTag = "\"recientes-" + limit + "-" + productoService.obtenerHuellaCatalogo() + "\"";
+        if (coincideETag(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(cacheControlPublico())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControlPublico())
+                .body(productoService.obtenerRecientes(limit));
+    }
+
+    @Operation(
+            summary = "Buscar productos",
+            description = "Busca productos activos por nombre, descripción y categoría. " +
+                    "No distingue mayúsculas ni tildes y ordena por relevancia. Endpoint público."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultados de la búsqueda ordenados por relevancia",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductoResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductoResponse>> buscar(
+            @Parameter(description = "Texto a buscar", required = true, example = "semillas tomate")
+            @RequestParam("q") String consulta,
+            @Parameter(description = "Número máximo de resultados (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productoService.buscar(consulta, limit));
+    }
+
+    @Operation(
+            summary = "Autocompletar nombres de productos",
+            description = "Sugiere productos activos cuyo nombre (o alguna de sus palabras) empieza con el prefijo, " +
+                    "sin distinguir tildes ni mayúsculas. Las sugerencias salen de un índice en memoria y se " +
+                    "ordenan de la más reciente a la más antigua. Endpoint público."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Sugerencias obtenidas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductoSummaryResponse.class))
+                    )
+            )
+    })
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<ProductoSummaryResponse>> autocompletar(
+            @Parameter(description = "Texto escrito hasta el momento", required = true, example = "tom")
+            @RequestParam("prefix") String prefijo,
+            @Parameter(description = "Número máximo de sugerencias (máximo 10)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControlPublico())
+                .body(productoService.autocompletar(prefijo, limit));
+    }
+
+    @Operation(
+            summary = "Navegar por categorías",
+            description = "Obtiene los productos activos de una categoría junto con la cantidad de productos " +
+                    "de cada categoría y por rango de precio. Sin categoría solo retorna los conteos. Endpoint público."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Facetas obtenidas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = FacetasResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/facetas")
+    public ResponseEntity<FacetasResponse> obtenerFacetas(
+            @Parameter(description = "Categoría a navegar", example = "Semillas")
+            @RequestParam(required = false) String categoria) {
+        return ResponseEntity.ok(productoService.obtenerFacetas(categoria));
     }
 
     @Operation(
@@ -130,6 +489,43 @@ public class ProductoController {
         }
     }
 
+    @Operation(
+            summary = "Importar productos",
+            description = "Carga masiva de productos desde CSV (text/csv, con encabezado) o NDJSON " +
+                    "(application/x-ndjson, un producto por línea). El archivo se procesa en streaming y " +
+                    "se guarda por lotes; los productos existentes se actualizan por SKU. " +
+                    "Las filas inválidas se informan sin detener la importación. Requiere rol ADMIN.",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Importación procesada; incluye el detalle de las filas con error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportacionResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Formato no soportado o archivo ilegible"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "No autorizado - Requiere rol ADMIN"
+            )
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportacionResponse> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream entrada) {
+        try {
+            return ResponseEntity.ok(importacionProductoService.importar(entrada, contentType));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(
             summary = "Actualizar producto",
             description = "Actualiza un producto existente. Requiere rol ADMIN.",
@@ -165,6 +561,41 @@ public class ProductoController {
         }
     }
 
+    @Operation(
+            summary = "Actualizar precios y stock en bloque",
+            description = "Recibe una lista de cambios {id o sku, precio?, stock?} y los aplica como UPDATE " +
+                    "por lotes en una sola transacción. Los campos omitidos conservan su valor. " +
+                    "El catálogo en memoria se recarga una vez al terminar. Requiere rol ADMIN.",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Cambios aplicados; incluye los ids o SKUs que no existen",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ActualizacionMasivaResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Algún cambio no indica producto, no trae valores o tiene valores negativos"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "No autorizado - Requiere rol ADMIN"
+            )
+    })
+    @PutMapping("/bulk")
+    public ResponseEntity<ActualizacionMasivaResponse> actualizarMasivo(
+            @RequestBody List<ActualizacionMasivaRequest> cambios) {
+        try {
+            return ResponseEntity.ok(productoService.actualizarMasivo(cambios));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(
             summary = "Eliminar producto",
             description = "Elimina (desactiva) un producto del catálogo. Requiere rol ADMIN.",
@@ -195,4 +626,47 @@ public class ProductoController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    private CacheControl cacheControlPublico() {
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSegundos)).cachePublic();
+    }
+
+    // El ETag sale del contenido, asi /{id} y /sku/{sku} validan igual. No se envia Last-Modified:
+    // con precision de segundos un If-Modified-Since daria 304 tras dos cambios en el mismo segundo
+    private ResponseEntity<ProductoResponse> respuestaProducto(ProductoResponse producto) {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControlPublico())
+                .eTag("producto-" + producto.getId() + "-" + CatalogoSnapshot.huellaProducto(producto))
+                .body(producto);
+    }
+
+    // If-None-Match puede traer varias etiquetas, debiles (W/) o "*"
+    private boolean coincideETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String etiqueta : ifNoneMatch.split(",")) {
+            String valor = etiqueta.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
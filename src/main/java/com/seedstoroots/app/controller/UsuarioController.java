@@ -3,6 +3,7 @@ package com.seedstoroots.app.controller;
 import com.seedstoroots.app.dto.UsuarioCreateRequest;
 import com.seedstoroots.app.dto.UsuarioResponse;
 import com.seedstoroots.app.dto.UsuarioUpdateRequest;
+import com.seedstoroots.app.exception.ServicioSaturadoException;
 import com.seedstoroots.app.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -53,6 +55,10 @@ public class UsuarioController {
             @ApiResponse(
                     responseCode = "400",
                     description = "Datos invalidos o duplicados"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Hashing de contraseñas saturado; reintentar tras Retry-After"
             )
     })
     @PostMapping
@@ -60,6 +66,10 @@ public class UsuarioController {
         try {
             UsuarioResponse response = usuarioService.crear(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ServicioSaturadoException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSegundos()))
+                    .build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
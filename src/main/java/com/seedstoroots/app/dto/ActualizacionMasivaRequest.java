@@ -0,0 +1,14 @@
+package com.seedstoroots.app.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class ActualizacionMasivaRequest {
+    // Se identifica el producto por id o, si no viene, por sku
+    private Long id;
+    private String sku;
+    // Los campos nulos conservan el valor actual
+    private BigDecimal precio;
+    private Integer stock;
+}
@@ -0,0 +1,17 @@
+package com.seedstoroots.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActualizacionMasivaResponse {
+    private int solicitados;
+    private int actualizados;
+    // Ids o SKUs que no coincidieron con ningun producto
+    private List<String> noEncontrados;
+}
@@ -0,0 +1,21 @@
+package com.seedstoroots.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambiosCatalogoResponse {
+    private long desde;
+    // Secuencia a enviar como 'since' en la proxima sincronizacion
+    private long hasta;
+    private boolean hayMas;
+    // Productos activos creados o modificados: reemplazan la copia local
+    private List<ProductoResponse> actualizados;
+    // Productos dados de baja: se quitan de la copia local
+    private List<Long> eliminados;
+}
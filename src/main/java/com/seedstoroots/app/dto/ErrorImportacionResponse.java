@@ -0,0 +1,14 @@
+package com.seedstoroots.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorImportacionResponse {
+    private Long fila;
+    private String sku;
+    private String mensaje;
+}
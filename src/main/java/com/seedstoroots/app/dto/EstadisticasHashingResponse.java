@@ -0,0 +1,18 @@
+package com.seedstoroots.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EstadisticasHashingResponse {
+    private Integer hilos;
+    private Integer capacidadCola;
+    private Integer enCola;
+    private Integer enProceso;
+    private Long completadas;
+    private Long rechazadas;
+    private Double esperaPromedioMs;
+    private Double esperaMaximaMs;
+    private Double hashPromedioMs;
+}
@@ -0,0 +1,22 @@
+package com.seedstoroots.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Evento compacto del stream del catalogo; los campos nulos no se serializan
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoCatalogoResponse {
+    // producto, stock o recarga
+    private String tipo;
+    private Long id;
+    private BigDecimal precio;
+    private Integer stock;
+    private Boolean activo;
+}
@@ -0,0 +1,17 @@
+package com.seedstoroots.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetasResponse {
+    private String categoria;
+    private List<ProductoResponse> productos;
+    private Map<String, Long> categorias;
+    private List<RangoPrecioResponse> rangosPrecio;
+}
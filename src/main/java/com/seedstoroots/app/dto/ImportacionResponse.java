@@ -0,0 +1,14 @@
+package com.seedstoroots.app.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportacionResponse {
+    private long filasProcesadas;
+    private long filasImportadas;
+    private long filasConError;
+    // Detalle de los primeros errores; filasConError tiene el total
+    private List<ErrorImportacionResponse> errores = new ArrayList<>();
+}
@@ -0,0 +1,15 @@
+package com.seedstoroots.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+    private List<T> items;
+    // Cursor opaco para pedir la siguiente pagina; null cuando no hay mas resultados
+    private String next;
+}
@@ -0,0 +1,17 @@
+package com.seedstoroots.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoBajoStockResponse {
+    private Long id;
+    private String nombre;
+    private String sku;
+    private String categoria;
+    private Integer stock;
+    private Integer umbral;
+}
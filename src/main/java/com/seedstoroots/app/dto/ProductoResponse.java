@@ -1,5 +1,6 @@
 package com.seedstoroots.app.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,4 +18,8 @@ public class ProductoResponse {
     private Boolean activo;
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaActualizacion;
+
+    // Version de la fila; solo la usa el catalogo en memoria para ordenar los cambios
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,19 @@
+package com.seedstoroots.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Version liviana para tarjetas y listados: sin descripcion ni datos de auditoria
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoSummaryResponse {
+    private Long id;
+    private String nombre;
+    private BigDecimal precio;
+    private String imagen;
+    private Integer stock;
+}
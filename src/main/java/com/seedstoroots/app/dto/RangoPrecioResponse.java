@@ -0,0 +1,16 @@
+package com.seedstoroots.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangoPrecioResponse {
+    private BigDecimal desde;
+    // null en el ultimo rango (sin limite superior)
+    private BigDecimal hasta;
+    private Long cantidad;
+}
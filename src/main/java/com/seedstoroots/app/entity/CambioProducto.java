@@ -0,0 +1,45 @@
+package com.seedstoroots.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Registro de cambios del catalogo: cada alta, modificacion o baja de un producto agrega una
+ * fila. La secuencia que usan los clientes para sincronizar se asigna despues del commit, en
+ * orden, por ProductoServiceImpl.publicarCambios; hasta entonces es nula y la fila no se entrega.
+ */
+@Entity
+@Table(name = "cambios_producto", indexes = {
+        // Compactacion: busca un cambio posterior del mismo producto
+        @Index(name = "idx_cambios_producto_producto_secuencia", columnList = "producto_id, secuencia")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioProducto {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    @Column(unique = true)
+    private Long secuencia;
+
+    public CambioProducto(Long productoId) {
+        this.productoId = productoId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        fecha = LocalDateTime.now();
+    }
+}
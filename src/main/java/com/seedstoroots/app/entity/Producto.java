@@ -4,11 +4,21 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+        // Soporta la paginacion por cursor (activo, fechaCreacion, id) del catalogo
+        @Index(name = "idx_productos_activo_fecha_id", columnList = "activo, fecha_creacion DESC, id DESC"),
+        // Listados filtrados: igualdad por categoria/activo y luego la clave de orden con id de desempate
+        @Index(name = "idx_productos_activo_precio_id", columnList = "activo, precio, id"),
+        @Index(name = "idx_productos_categoria_activo_fecha_id", columnList = "categoria, activo, fecha_creacion DESC, id DESC"),
+        @Index(name = "idx_productos_categoria_activo_precio_id", columnList = "categoria, activo, precio, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,14 +53,22 @@ public class Producto {
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaActualizacion;
 
+    // Crece con cada escritura (tambien las masivas por JDBC); el catalogo en memoria lo usa
+    // para descartar cambios atrasados sin depender del reloj
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Microsegundos: la precision de la columna, asi el valor en memoria coincide con el leido despues
     @PrePersist
     protected void onCreate() {
-        fechaCreacion = LocalDateTime.now();
-        fechaActualizacion = LocalDateTime.now();
+        fechaCreacion = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        fechaActualizacion = fechaCreacion;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        fechaActualizacion = LocalDateTime.now();
+        fechaActualizacion = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
\ No newline at end of file
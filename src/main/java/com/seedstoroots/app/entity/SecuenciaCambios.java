@@ -0,0 +1,24 @@
+package com.seedstoroots.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila unica con la ultima secuencia entregada al registro de cambios. Quien publica cambios
+ * la bloquea con SELECT ... FOR UPDATE, asi las secuencias se hacen visibles en orden.
+ */
+@Entity
+@Table(name = "secuencia_cambios")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SecuenciaCambios {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long ultima;
+}
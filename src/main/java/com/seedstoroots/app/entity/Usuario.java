@@ -52,6 +52,8 @@ public class Usuario {
 
     private LocalDateTime fechaRegistro;
     private LocalDateTime fechaActualizacion;
+    // Lo escribe RegistroUltimoLogin por JDBC; JPA no lo actualiza para no pisarlo con un valor viejo
+    @Column(updatable = false)
     private LocalDateTime ultimoLogin;
 
     @PrePersist
@@ -0,0 +1,19 @@
+package com.seedstoroots.app.exception;
+
+/**
+ * Un recurso acotado (por ejemplo el pool de hashing de contrasenas) no tiene capacidad
+ * para atender el pedido. Los controladores la traducen a 503 con Retry-After.
+ */
+public class ServicioSaturadoException extends RuntimeException {
+
+    private final int retryAfterSegundos;
+
+    public ServicioSaturadoException(String message, int retryAfterSegundos) {
+        super(message);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public int getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
@@ -0,0 +1,21 @@
+package com.seedstoroots.app.repository;
+
+import com.seedstoroots.app.entity.CambioProducto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CambioProductoRepository extends JpaRepository<CambioProducto, Long> {
+
+    // Un producto con varios cambios aparece una vez, en la posicion de su cambio mas reciente.
+    // Las filas sin secuencia todavia no se publicaron y quedan fuera
+    @Query("SELECT c.productoId AS productoId, MAX(c.secuencia) AS secuencia FROM CambioProducto c " +
+            "WHERE c.secuencia > :desde " +
+            "GROUP BY c.productoId ORDER BY MAX(c.secuencia)")
+    List<UltimoCambio> findUltimosCambiosDesde(@Param("desde") Long desde, Pageable pageable);
+}
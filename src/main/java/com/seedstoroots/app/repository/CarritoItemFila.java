@@ -0,0 +1,19 @@
+package com.seedstoroots.app.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila de la lectura del carrito: el carrito unido a cada item y su producto. Un carrito sin
+ * items devuelve una sola fila con los datos del item en null.
+ */
+public interface CarritoItemFila {
+    Long getCarritoId();
+    Long getUsuarioId();
+    Long getItemId();
+    Long getProductoId();
+    String getProductoNombre();
+    String getProductoImagen();
+    BigDecimal getPrecioUnitario();
+    Integer getCantidad();
+    BigDecimal getSubtotal();
+}
@@ -4,11 +4,31 @@ import com.seedstoroots.app.entity.Carrito;
 import com.seedstoroots.app.entity.EstadoCarrito;
 import com.seedstoroots.app.entity.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CarritoRepository extends JpaRepository<Carrito, Long> {
     Optional<Carrito> findByUsuarioAndEstado(Usuario usuario, EstadoCarrito estado);
     Optional<Carrito> findByUsuarioIdAndEstado(Long usuarioId, EstadoCarrito estado);
-}
\ No newline at end of file
+
+    // Carrito, usuario, items y productos en una sola consulta; evita un SELECT por item al recorrerlos
+    @Query("SELECT c FROM Carrito c JOIN FETCH c.usuario u " +
+            "LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.producto " +
+            "WHERE u.id = :usuarioId AND c.estado = :estado")
+    Optional<Carrito> findConItemsByUsuarioIdAndEstado(@Param("usuarioId") Long usuarioId,
+                                                       @Param("estado") EstadoCarrito estado);
+
+    // Lectura sin entidades administradas para mostrar el carrito
+    @Query("SELECT c.id AS carritoId, c.usuario.id AS usuarioId, i.id AS itemId, p.id AS productoId, " +
+            "p.nombre AS productoNombre, p.imagen AS productoImagen, i.precioUnitario AS precioUnitario, " +
+            "i.cantidad AS cantidad, i.subtotal AS subtotal " +
+            "FROM Carrito c LEFT JOIN c.items i LEFT JOIN i.producto p " +
+            "WHERE c.usuario.id = :usuarioId AND c.estado = :estado " +
+            "ORDER BY i.id")
+    List<CarritoItemFila> findFilasByUsuarioIdAndEstado(@Param("usuarioId") Long usuarioId,
+                                                        @Param("estado") EstadoCarrito estado);
+}
@@ -0,0 +1,10 @@
+package com.seedstoroots.app.repository;
+
+/**
+ * Proyeccion de las columnas unicas de un usuario, para cargar el filtro de registrados
+ * sin crear entidades.
+ */
+public interface ClavesUsuario {
+    String getEmail();
+    String getRun();
+}
@@ -0,0 +1,19 @@
+package com.seedstoroots.app.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtros y orden del listado del catalogo. Los campos nulos no filtran.
+ */
+public record FiltroProductos(String categoria,
+                              BigDecimal precioMin,
+                              BigDecimal precioMax,
+                              boolean enStock,
+                              Orden orden) {
+
+    public enum Orden { RECIENTES, PRECIO_ASC, PRECIO_DESC }
+
+    public static FiltroProductos sinFiltros() {
+        return new FiltroProductos(null, null, null, false, Orden.RECIENTES);
+    }
+}
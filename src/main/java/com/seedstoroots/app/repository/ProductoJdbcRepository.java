@@ -0,0 +1,226 @@
+package com.seedstoroots.app.repository;
+
+import com.seedstoroots.app.dto.ActualizacionMasivaRequest;
+import com.seedstoroots.app.entity.Producto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Operaciones masivas sobre productos con JDBC directo. Producto usa GenerationType.IDENTITY,
+ * lo que impide que Hibernate agrupe los INSERT; aqui se envian en lotes con batchUpdate.
+ */
+@Repository
+public class ProductoJdbcRepository {
+
+    private static final String UPSERT_POR_SKU =
+            "INSERT INTO productos (nombre, descripcion, categoria, precio, stock, sku, imagen, activo, " +
+            "fecha_creacion, fecha_actualizacion, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0) " +
+            "ON CONFLICT (sku) DO UPDATE SET nombre = EXCLUDED.nombre, descripcion = EXCLUDED.descripcion, " +
+            "categoria = EXCLUDED.categoria, precio = EXCLUDED.precio, stock = EXCLUDED.stock, " +
+            "imagen = EXCLUDED.imagen, activo = EXCLUDED.activo, " +
+            "fecha_actualizacion = EXCLUDED.fecha_actualizacion, version = productos.version + 1";
+
+    // COALESCE deja el valor actual cuando el parametro llega nulo; la version sube igual que con JPA
+    private static final String ACTUALIZAR_POR_ID =
+            "UPDATE productos SET precio = COALESCE(?, precio), stock = COALESCE(?, stock), " +
+            "fecha_actualizacion = ?, version = version + 1 WHERE id = ?";
+
+    private static final String ACTUALIZAR_POR_SKU =
+            "UPDATE productos SET precio = COALESCE(?, precio), stock = COALESCE(?, stock), " +
+            "fecha_actualizacion = ?, version = version + 1 WHERE sku = ?";
+
+    private static final String REGISTRAR_CAMBIO_POR_ID =
+            "INSERT INTO cambios_producto (producto_id, fecha) SELECT id, ? FROM productos WHERE id = ?";
+
+    private static final String REGISTRAR_CAMBIO_POR_SKU =
+            "INSERT INTO cambios_producto (producto_id, fecha) SELECT id, ? FROM productos WHERE sku = ?";
+
+    // Linea base del registro de cambios para los productos que existian antes de el
+    private static final String REGISTRAR_CAMBIOS_INICIALES =
+            "INSERT INTO cambios_producto (producto_id, fecha) SELECT id, ? FROM productos ORDER BY id";
+
+    // Las filas previas a la secuencia conservan su id como secuencia, asi los cursores ya
+    // entregados a los clientes siguen valiendo
+    private static final String SECUENCIAR_CAMBIOS_EXISTENTES =
+            "UPDATE cambios_producto SET secuencia = id WHERE secuencia IS NULL";
+
+    // Clave fija: si dos instancias arrancan juntas, la segunda espera el commit de la primera y no inserta nada
+    private static final String CREAR_SECUENCIA =
+            "INSERT INTO secuencia_cambios (id, ultima) VALUES (1, 0) ON CONFLICT DO NOTHING";
+
+    private static final String AJUSTAR_SECUENCIA =
+            "UPDATE secuencia_cambios SET ultima = (SELECT COALESCE(MAX(secuencia), 0) FROM cambios_producto) " +
+            "WHERE id = 1";
+
+    private static final String BLOQUEAR_SECUENCIA =
+            "SELECT ultima FROM secuencia_cambios WHERE id = 1 FOR UPDATE";
+
+    private static final String CAMBIOS_SIN_SECUENCIA =
+            "SELECT id FROM cambios_producto WHERE secuencia IS NULL ORDER BY id LIMIT ?";
+
+    private static final String ASIGNAR_SECUENCIA =
+            "UPDATE cambios_producto SET secuencia = ? WHERE id = ?";
+
+    private static final String ACTUALIZAR_SECUENCIA =
+            "UPDATE secuencia_cambios SET ultima = ? WHERE id = 1";
+
+    // Un cambio con otro posterior del mismo producto ya no aporta nada: el delta entrega el ultimo
+    private static final String COMPACTAR_CAMBIOS =
+            "DELETE FROM cambios_producto c WHERE c.secuencia IS NOT NULL AND EXISTS (" +
+            "SELECT 1 FROM cambios_producto n WHERE n.producto_id = c.producto_id AND n.secuencia > c.secuencia)";
+
+    private static final int TAMANO_LOTE = 500;
+    private static final int MAXIMO_POR_PUBLICACION = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductoJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserta los productos o, si el SKU ya existe, sobrescribe sus datos. Todo el lote
+     * viaja en un solo batch JDBC.
+     */
+    public void upsertPorSku(List<Producto> productos) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_POR_SKU, productos, productos.size(), (ps, producto) -> {
+            ps.setString(1, producto.getNombre());
+            ps.setString(2, producto.getDescripcion());
+            ps.setString(3, producto.getCategoria());
+            ps.setBigDecimal(4, producto.getPrecio());
+            ps.setInt(5, producto.getStock());
+            ps.setString(6, producto.getSku());
+            ps.setString(7, producto.getImagen());
+            ps.setBoolean(8, producto.getActivo());
+            ps.setTimestamp(9, ahora);
+            ps.setTimestamp(10, ahora);
+        });
+    }
+
+    /**
+     * Actualiza precio y stock identificando cada producto por id. Devuelve, en el mismo
+     * orden, la cantidad de filas afectadas por cada cambio.
+     */
+    public int[] actualizarPrecioYStockPorId(List<ActualizacionMasivaRequest> cambios) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        return aplanar(jdbcTemplate.batchUpdate(ACTUALIZAR_POR_ID, cambios, TAMANO_LOTE, (ps, cambio) -> {
+            asignarPrecioYStock(ps, cambio, ahora);
+            ps.setLong(4, cambio.getId());
+        }));
+    }
+
+    /**
+     * Igual que {@link #actualizarPrecioYStockPorId} pero buscando por SKU.
+     */
+    public int[] actualizarPrecioYStockPorSku(List<ActualizacionMasivaRequest> cambios) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        return aplanar(jdbcTemplate.batchUpdate(ACTUALIZAR_POR_SKU, cambios, TAMANO_LOTE, (ps, cambio) -> {
+            asignarPrecioYStock(ps, cambio, ahora);
+            ps.setString(4, cambio.getSku());
+        }));
+    }
+
+    private void asignarPrecioYStock(PreparedStatement ps, ActualizacionMasivaRequest cambio, Timestamp ahora)
+            throws SQLException {
+        // Nulos con tipo explicito: el driver de Postgres no puede inferirlo dentro de COALESCE
+        if (cambio.getPrecio() != null) {
+            ps.setBigDecimal(1, cambio.getPrecio());
+        } else {
+            ps.setNull(1, Types.NUMERIC);
+        }
+        if (cambio.getStock() != null) {
+            ps.setInt(2, cambio.getStock());
+        } else {
+            ps.setNull(2, Types.INTEGER);
+        }
+        ps.setTimestamp(3, ahora);
+    }
+
+    private int[] aplanar(int[][] lotes) {
+        return Arrays.stream(lotes).flatMapToInt(Arrays::stream).toArray();
+    }
+
+    /**
+     * Agrega una fila al registro de cambios por cada id; los ids inexistentes se ignoran.
+     */
+    public void registrarCambiosPorId(List<Long> ids) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(REGISTRAR_CAMBIO_POR_ID, ids, TAMANO_LOTE, (ps, id) -> {
+            ps.setTimestamp(1, ahora);
+            ps.setLong(2, id);
+        });
+    }
+
+    public void registrarCambiosPorSku(List<String> skus) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(REGISTRAR_CAMBIO_POR_SKU, skus, TAMANO_LOTE, (ps, sku) -> {
+            ps.setTimestamp(1, ahora);
+            ps.setString(2, sku);
+        });
+    }
+
+    public int registrarCambiosIniciales() {
+        return jdbcTemplate.update(REGISTRAR_CAMBIOS_INICIALES, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Crea la fila de la secuencia la primera vez. Devuelve false si ya existia. Es seguro
+     * llamarlo desde varias instancias a la vez: solo la que inserta la fila numera los
+     * cambios existentes, y lo hace con la fila bloqueada hasta el commit. Debe llamarse en
+     * una transaccion.
+     */
+    public boolean inicializarSecuenciaCambios() {
+        if (jdbcTemplate.update(CREAR_SECUENCIA) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(SECUENCIAR_CAMBIOS_EXISTENTES);
+        jdbcTemplate.update(AJUSTAR_SECUENCIA);
+        return true;
+    }
+
+    /**
+     * Asigna secuencias consecutivas a los cambios ya confirmados que aun no tienen una. El
+     * bloqueo de la fila de secuencia serializa a los publicadores (tambien entre instancias),
+     * por lo que un numero mayor nunca se ve antes que uno menor. Debe llamarse en una transaccion.
+     */
+    public int publicarCambiosPendientes() {
+        List<Long> ultima = jdbcTemplate.queryForList(BLOQUEAR_SECUENCIA, Long.class);
+        if (ultima.isEmpty()) {
+            inicializarSecuenciaCambios();
+            ultima = jdbcTemplate.queryForList(BLOQUEAR_SECUENCIA, Long.class);
+        }
+        List<Long> pendientes = jdbcTemplate.queryForList(CAMBIOS_SIN_SECUENCIA, Long.class, MAXIMO_POR_PUBLICACION);
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        long siguiente = ultima.get(0);
+        List<long[]> asignaciones = new ArrayList<>(pendientes.size());
+        for (Long id : pendientes) {
+            asignaciones.add(new long[]{++siguiente, id});
+        }
+        jdbcTemplate.batchUpdate(ASIGNAR_SECUENCIA, asignaciones, TAMANO_LOTE, (ps, asignacion) -> {
+            ps.setLong(1, asignacion[0]);
+            ps.setLong(2, asignacion[1]);
+        });
+        jdbcTemplate.update(ACTUALIZAR_SECUENCIA, siguiente);
+        return pendientes.size();
+    }
+
+    /**
+     * Borra los cambios que tienen otro posterior del mismo producto. Queda una fila por
+     * producto como maximo, asi que el registro no crece mas que el catalogo mas la actividad reciente.
+     */
+    public int compactarCambios() {
+        return jdbcTemplate.update(COMPACTAR_CAMBIOS);
+    }
+}
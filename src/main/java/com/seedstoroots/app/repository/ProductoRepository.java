@@ -1,18 +1,36 @@
 package com.seedstoroots.app.repository;
 
 import com.seedstoroots.app.entity.Producto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
+public interface ProductoRepository extends JpaRepository<Producto, Long>, ProductoRepositoryCustom {
     List<Producto> findByCategoria(String categoria);
     List<Producto> findByActivoTrue();
+    Optional<Producto> findBySku(String sku);
     long countByActivoTrue();
-    long countByStockLessThan(Integer stock);
 
-    @Query("SELECT p FROM Producto p WHERE p.activo = true ORDER BY p.fechaCreacion DESC")
-    List<Producto> findProductosRecientes();
+    // El Pageable solo se usa como LIMIT (nunca con OFFSET); lo resuelve idx_productos_activo_fecha_id
+    @Query("SELECT p FROM Producto p WHERE p.activo = true " +
+            "ORDER BY p.fechaCreacion DESC, p.id DESC")
+    List<Producto> findProductosRecientes(Pageable pageable);
+
+    // Cursor de solo avance para exportar: el driver trae las filas de a fetchSize y no todo el
+    // resultado de una vez. Debe consumirse dentro de una transaccion y cerrarse al terminar
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Producto p WHERE p.activo = true ORDER BY p.id")
+    Stream<Producto> streamProductosActivos();
 }
@@ -0,0 +1,13 @@
+package com.seedstoroots.app.repository;
+
+import java.util.List;
+
+public interface ProductoRepositoryCustom {
+
+    /**
+     * Pagina por cursor (keyset) sobre los productos activos que cumplen el filtro. Con
+     * valorDesde nulo devuelve la primera pagina; si no, continua despues de la posicion
+     * (valorDesde, idDesde), donde valorDesde es fechaCreacion o precio segun el orden.
+     */
+    List<ProductoResumen> buscarResumen(FiltroProductos filtro, Object valorDesde, Long idDesde, int limite);
+}
@@ -0,0 +1,117 @@
+package com.seedstoroots.app.repository;
+
+import com.seedstoroots.app.entity.Producto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Consulta dinamica del listado con Criteria. Cada combinacion de filtro y orden tiene un
+ * indice compuesto en Producto que cubre la igualdad (categoria, activo) y el orden
+ * (clave, id), asi el LIMIT corta sobre el indice sin ordenar la tabla.
+ */
+public class ProductoRepositoryImpl implements ProductoRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public ProductoRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<ProductoResumen> buscarResumen(FiltroProductos filtro, Object valorDesde, Long idDesde, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Producto> producto = query.from(Producto.class);
+        query.multiselect(
+                producto.get("id"), producto.get("nombre"), producto.get("precio"),
+                producto.get("imagen"), producto.get("stock"), producto.get("fechaCreacion"));
+
+        List<Predicate> condiciones = new ArrayList<>();
+        if (filtro.categoria() != null) {
+            condiciones.add(cb.equal(producto.get("categoria"), filtro.categoria()));
+        }
+        condiciones.add(cb.equal(producto.get("activo"), true));
+        if (filtro.precioMin() != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(producto.get("precio"), filtro.precioMin()));
+        }
+        if (filtro.precioMax() != null) {
+            condiciones.add(cb.lessThanOrEqualTo(producto.get("precio"), filtro.precioMax()));
+        }
+        if (filtro.enStock()) {
+            condiciones.add(cb.greaterThan(producto.get("stock"), 0));
+        }
+
+        boolean descendente = filtro.orden() != FiltroProductos.Orden.PRECIO_ASC;
+        Path<Comparable> clave = producto.get(filtro.orden() == FiltroProductos.Orden.RECIENTES ? "fechaCreacion" : "precio");
+        Path<Long> id = producto.get("id");
+        if (valorDesde != null) {
+            Comparable valor = (Comparable) valorDesde;
+            condiciones.add(descendente
+                    ? cb.or(cb.lessThan(clave, valor), cb.and(cb.equal(clave, valor), cb.lessThan(id, idDesde)))
+                    : cb.or(cb.greaterThan(clave, valor), cb.and(cb.equal(clave, valor), cb.greaterThan(id, idDesde))));
+        }
+
+        query.where(condiciones.toArray(new Predicate[0]));
+        query.orderBy(descendente
+                ? List.of(cb.desc(clave), cb.desc(id))
+                : List.of(cb.asc(clave), cb.asc(id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList()
+                .stream()
+                .map(FilaResumen::new)
+                .collect(Collectors.toList());
+    }
+
+    private static class FilaResumen implements ProductoResumen {
+
+        private final Tuple fila;
+
+        FilaResumen(Tuple fila) {
+            this.fila = fila;
+        }
+
+        @Override
+        public Long getId() {
+            return fila.get(0, Long.class);
+        }
+
+        @Override
+        public String getNombre() {
+            return fila.get(1, String.class);
+        }
+
+        @Override
+        public BigDecimal getPrecio() {
+            return fila.get(2, BigDecimal.class);
+        }
+
+        @Override
+        public String getImagen() {
+            return fila.get(3, String.class);
+        }
+
+        @Override
+        public Integer getStock() {
+            return fila.get(4, Integer.class);
+        }
+
+        @Override
+        public LocalDateTime getFechaCreacion() {
+            return fila.get(5, LocalDateTime.class);
+        }
+    }
+}
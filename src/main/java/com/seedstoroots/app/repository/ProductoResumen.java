@@ -0,0 +1,17 @@
+package com.seedstoroots.app.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Proyeccion de las columnas que usan los listados. La consulta selecciona solo estas
+ * columnas y no crea entidades administradas; fechaCreacion se lee para armar el cursor.
+ */
+public interface ProductoResumen {
+    Long getId();
+    String getNombre();
+    BigDecimal getPrecio();
+    String getImagen();
+    Integer getStock();
+    LocalDateTime getFechaCreacion();
+}
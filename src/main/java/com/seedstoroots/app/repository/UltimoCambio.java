@@ -0,0 +1,9 @@
+package com.seedstoroots.app.repository;
+
+/**
+ * Ultima secuencia registrada para un producto dentro de un rango de cambios.
+ */
+public interface UltimoCambio {
+    Long getProductoId();
+    Long getSecuencia();
+}
@@ -0,0 +1,44 @@
+package com.seedstoroots.app.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrituras puntuales sobre usuarios con JDBC directo, sin cargar la entidad ni disparar
+ * sus callbacks de JPA.
+ */
+@Repository
+public class UsuarioJdbcRepository {
+
+    // Solo avanza la fecha: un valor mas antiguo (otra instancia, un reintento) no pisa uno mas nuevo
+    private static final String ACTUALIZAR_ULTIMO_LOGIN =
+            "UPDATE usuarios SET ultimo_login = ? WHERE id = ? AND (ultimo_login IS NULL OR ultimo_login < ?)";
+
+    private static final int TAMANO_LOTE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UsuarioJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Actualiza solo ultimo_login de cada usuario, en lotes JDBC. No modifica
+     * fecha_actualizacion.
+     */
+    public void actualizarUltimosLogins(Map<Long, LocalDateTime> ultimosLogins) {
+        List<Map.Entry<Long, LocalDateTime>> cambios = new ArrayList<>(ultimosLogins.entrySet());
+        jdbcTemplate.batchUpdate(ACTUALIZAR_ULTIMO_LOGIN, cambios, TAMANO_LOTE, (ps, cambio) -> {
+            Timestamp fecha = Timestamp.valueOf(cambio.getValue());
+            ps.setTimestamp(1, fecha);
+            ps.setLong(2, cambio.getKey());
+            ps.setTimestamp(3, fecha);
+        });
+    }
+}
@@ -2,10 +2,15 @@ package com.seedstoroots.app.repository;
 
 
 import com.seedstoroots.app.entity.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
@@ -17,4 +22,12 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     boolean existsByRun(String run);
     long countByActivoTrue();
 
+    // Se recorre una vez al iniciar; debe consumirse dentro de una transaccion y cerrarse al terminar
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.email AS email, u.run AS run FROM Usuario u")
+    Stream<ClavesUsuario> streamClavesUsuarios();
+
 }
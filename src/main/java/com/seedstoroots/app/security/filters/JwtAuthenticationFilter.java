@@ -34,19 +34,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
-            if (jwtUtil.validateToken(token)) {
-                String email = jwtUtil.getEmailFromToken(token);
-                String rol = jwtUtil.getRolFromToken(token);
-
+            jwtUtil.getPrincipalFromToken(token).ifPresent(principal -> {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
-                                email,
+                                principal,
                                 null,
-                                List.of(new SimpleGrantedAuthority("ROLE_" + rol))
+                                List.of(new SimpleGrantedAuthority("ROLE_" + principal.rol()))
                         );
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+            });
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,166 @@
+package com.seedstoroots.app.security.filters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seedstoroots.app.security.limite.LimitadorIntentos;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica el LimitadorIntentos a POST /auth/login y /auth/register antes de cualquier lectura
+ * de la base de datos o calculo de BCrypt. Primero se cobra la cubeta de la IP y luego la del
+ * email del cuerpo; el cuerpo se lee una vez y se entrega intacto al controlador. Sin tokens
+ * se responde 429 con Retry-After.
+ */
+@Component
+public class LimiteIntentosFilter extends OncePerRequestFilter {
+
+    private static final Set<String> RUTAS_LIMITADAS = Set.of("/auth/login", "/auth/register");
+    // Un login o registro valido es mucho mas chico; un cuerpo mayor se rechaza sin procesarlo
+    private static final int TAMANO_MAXIMO_CUERPO = 16 * 1024;
+
+    private final LimitadorIntentos limitadorIntentos;
+    private final ObjectMapper objectMapper;
+
+    public LimiteIntentosFilter(LimitadorIntentos limitadorIntentos, ObjectMapper objectMapper) {
+        this.limitadorIntentos = limitadorIntentos;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !RUTAS_LIMITADAS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long espera = limitadorIntentos.consumirPorIp(request.getRemoteAddr());
+        if (espera > 0) {
+            rechazar(response, espera);
+            return;
+        }
+
+        byte[] cuerpo = request.getInputStream().readNBytes(TAMANO_MAXIMO_CUERPO + 1);
+        if (cuerpo.length > TAMANO_MAXIMO_CUERPO) {
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        String email = leerEmail(cuerpo);
+        if (email != null) {
+            espera = limitadorIntentos.consumirPorEmail(email);
+            if (espera > 0) {
+                rechazar(response, espera);
+                return;
+            }
+        }
+
+        filterChain.doFilter(new CuerpoLeido(request, cuerpo), response);
+    }
+
+    private String leerEmail(byte[] cuerpo) {
+        try {
+            JsonNode email = objectMapper.readTree(cuerpo).get("email");
+            return email != null && email.isTextual() && !email.asText().isBlank() ? email.asText() : null;
+        } catch (IOException e) {
+            // Cuerpo invalido: el controlador respondera el error; la IP ya se cobro
+            return null;
+        }
+    }
+
+    private void rechazar(HttpServletResponse response, long esperaNanos) {
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+    }
+
+    // Entrega al resto de la cadena los bytes ya leidos del cuerpo
+    private static final class CuerpoLeido extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        CuerpoLeido(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Todo el cuerpo ya esta en memoria: el listener puede leerlo completo de inmediato
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return cuerpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return cuerpo.length;
+        }
+    }
+}
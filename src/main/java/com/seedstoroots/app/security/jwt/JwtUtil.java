@@ -3,24 +3,50 @@ package com.seedstoroots.app.security.jwt;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
-
+/**
+ * Emite y verifica los JWT. La clave y el parser se arman una vez al iniciar (el parser es
+ * seguro entre hilos). Los tokens ya verificados se guardan en un cache acotado, con el
+ * SHA-256 del token como clave: un request repetido con el mismo token no vuelve a calcular
+ * el HMAC ni a leer el JSON. Solo se guardan tokens validos y cada entrada vence junto con
+ * su token. Las lecturas no toman locks; al pasar la capacidad se quitan los vencidos y luego
+ * los usados hace mas tiempo.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Long expiration;
+    private final int capacidadCache;
 
-    private Key getSigninKey() {
+    private final Map<String, TokenVerificado> verificados = new ConcurrentHashMap<>();
+    // Un solo hilo desaloja a la vez; los demas siguen sin esperar
+    private final ReentrantLock desalojo = new ReentrantLock();
 
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.cache.capacidad:10000}") int capacidadCache) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.expiration = expiration;
+        this.capacidadCache = capacidadCache;
     }
 
     public String generateToken(String email, String rol, Long userId) {
@@ -31,36 +57,124 @@ public class JwtUtil {
                 .claim("userId", userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigninKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public String getEmailFromToken(String token) {
-        return getClaims(token).getSubject();
+        return verificar(token).principal().email();
     }
 
     public String getRolFromToken(String token) {
-        return getClaims(token).get("rol", String.class);
+        return verificar(token).principal().rol();
     }
 
     public Long getUserIdFromToken(String token) {
-        return getClaims(token).get("userId", Long.class);
+        return verificar(token).principal().userId();
     }
 
     public boolean validateToken(String token) {
+        return getPrincipalFromToken(token).isPresent();
+    }
+
+    // Valida y lee el token una sola vez; vacio si la firma o la expiracion no son validas
+    public Optional<UsuarioPrincipal> getPrincipalFromToken(String token) {
         try {
-            getClaims(token);
-            return true;
+            return Optional.of(verificar(token).principal());
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    // Los tokens vencidos se quitan al leerlos; esta limpieza libera los que no se vuelven a usar
+    @Scheduled(fixedDelayString = "${jwt.cache.limpieza-ms:60000}")
+    public void purgarVencidos() {
+        long ahora = System.currentTimeMillis();
+        verificados.values().removeIf(verificado -> verificado.venceEn <= ahora);
+    }
+
+    int tamanoCache() {
+        return verificados.size();
+    }
+
+    private TokenVerificado verificar(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Token vacio");
+        }
+        String clave = digerir(token);
+        TokenVerificado verificado = verificados.get(clave);
+        if (verificado != null) {
+            if (verificado.venceEn > System.currentTimeMillis()) {
+                verificado.ultimoUso = System.nanoTime();
+                return verificado;
+            }
+            verificados.remove(clave, verificado);
+        }
+
+        // Si dos hilos verifican el mismo token a la vez, ambos guardan lo mismo
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        verificado = new TokenVerificado(
+                new UsuarioPrincipal(
+                        claims.get("userId", Long.class),
+                        claims.getSubject(),
+                        claims.get("rol", String.class)),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+        verificados.put(clave, verificado);
+        if (verificados.size() > capacidadCache) {
+            desalojar();
+        }
+        return verificado;
+    }
+
+    // Baja hasta el 90% de la capacidad para no recorrer el cache en cada token nuevo
+    private void desalojar() {
+        if (!desalojo.tryLock()) {
+            return;
+        }
+        try {
+            purgarVencidos();
+            int sobrantes = verificados.size() - (capacidadCache - capacidadCache / 10);
+            if (sobrantes <= 0) {
+                return;
+            }
+            // Se copia el ultimo uso antes de ordenar: otros hilos lo siguen actualizando
+            List<Candidato> candidatos = new ArrayList<>(verificados.size());
+            verificados.forEach((clave, verificado) -> candidatos.add(new Candidato(clave, verificado, verificado.ultimoUso)));
+            candidatos.sort(Comparator.comparingLong(Candidato::ultimoUso));
+            for (Candidato candidato : candidatos.subList(0, Math.min(sobrantes, candidatos.size()))) {
+                verificados.remove(candidato.clave(), candidato.verificado());
+            }
+        } finally {
+            desalojo.unlock();
+        }
+    }
+
+    private static String digerir(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
         }
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigninKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private record Candidato(String clave, TokenVerificado verificado, long ultimoUso) {
+    }
+
+    private static final class TokenVerificado {
+
+        private final UsuarioPrincipal principal;
+        private final long venceEn;
+        // Aproximado: solo ordena el desalojo, no hace falta que sea exacto entre hilos
+        private volatile long ultimoUso = System.nanoTime();
+
+        private TokenVerificado(UsuarioPrincipal principal, long venceEn) {
+            this.principal = principal;
+            this.venceEn = venceEn;
+        }
+
+        private UsuarioPrincipal principal() {
+            return principal;
+        }
     }
 }
@@ -0,0 +1,16 @@
+package com.seedstoroots.app.security.jwt;
+
+import java.security.Principal;
+
+/**
+ * Usuario autenticado armado con los claims ya verificados del token. getName() devuelve el
+ * email, asi Authentication.getName() se comporta igual que antes; el id permite a los
+ * controladores comprobar la propiedad de un recurso sin consultar la base de datos.
+ */
+public record UsuarioPrincipal(Long userId, String email, String rol) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
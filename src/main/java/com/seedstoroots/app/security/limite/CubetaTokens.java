@@ -0,0 +1,49 @@
+package com.seedstoroots.app.security.limite;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket sin locks: el estado (tokens, instante) es inmutable y se reemplaza con CAS.
+ * Los tokens se recargan de forma continua segun el tiempo transcurrido, hasta la capacidad.
+ */
+final class CubetaTokens {
+
+    private final int capacidad;
+    private final double tokensPorNano;
+    private final AtomicReference<Estado> estado;
+
+    CubetaTokens(int capacidad, double tokensPorNano, long ahora) {
+        this.capacidad = capacidad;
+        this.tokensPorNano = tokensPorNano;
+        this.estado = new AtomicReference<>(new Estado(capacidad, ahora));
+    }
+
+    // 0 si se consumio un token; si no, los nanos que faltan para que haya uno
+    long consumir(long ahora) {
+        while (true) {
+            Estado actual = estado.get();
+            Estado recargado = recargar(actual, ahora);
+            if (recargado.tokens() < 1) {
+                return (long) Math.ceil((1 - recargado.tokens()) / tokensPorNano);
+            }
+            if (estado.compareAndSet(actual, new Estado(recargado.tokens() - 1, recargado.instante()))) {
+                return 0;
+            }
+        }
+    }
+
+    // Una cubeta llena es igual a una nueva, asi que se puede descartar sin cambiar el resultado
+    boolean estaLlena(long ahora) {
+        return recargar(estado.get(), ahora).tokens() >= capacidad;
+    }
+
+    private Estado recargar(Estado actual, long ahora) {
+        // Otro hilo pudo guardar un instante posterior; el tiempo nunca retrocede
+        long instante = Math.max(actual.instante(), ahora);
+        double tokens = Math.min(capacidad, actual.tokens() + (instante - actual.instante()) * tokensPorNano);
+        return new Estado(tokens, instante);
+    }
+
+    private record Estado(double tokens, long instante) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.seedstoroots.app.security.limite;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los intentos de login y registro con una cubeta de tokens por IP y otra por email,
+ * en memoria y sin dependencias externas. Las cubetas viven en un ConcurrentHashMap (con
+ * locks por segmento) y cada una se actualiza sin locks. Las cubetas que se recargaron por
+ * completo se eliminan periodicamente, asi el mapa solo guarda a quienes intentaron hace poco.
+ * La purga revisa y quita cada cubeta de forma atomica con computeIfPresent; un intento que
+ * alcanzo a consumir de una cubeta recien quitada se repite sobre la nueva, asi ningun token
+ * consumido se pierde.
+ */
+@Component
+public class LimitadorIntentos {
+
+    private final Limite porIp;
+    private final Limite porEmail;
+    private final LongSupplier reloj;
+
+    private final Map<String, CubetaTokens> cubetasIp = new ConcurrentHashMap<>();
+    private final Map<String, CubetaTokens> cubetasEmail = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LimitadorIntentos(@Value("${seguridad.limite.ip.capacidad:20}") int capacidadIp,
+                             @Value("${seguridad.limite.ip.recarga-por-minuto:10}") int recargaIpPorMinuto,
+                             @Value("${seguridad.limite.email.capacidad:5}") int capacidadEmail,
+                             @Value("${seguridad.limite.email.recarga-por-minuto:5}") int recargaEmailPorMinuto) {
+        this(new Limite(capacidadIp, recargaIpPorMinuto), new Limite(capacidadEmail, recargaEmailPorMinuto),
+                System::nanoTime);
+    }
+
+    LimitadorIntentos(Limite porIp, Limite porEmail, LongSupplier reloj) {
+        this.porIp = porIp;
+        this.porEmail = porEmail;
+        this.reloj = reloj;
+    }
+
+    // 0 si el intento se permite; si no, los nanos de espera antes de reintentar
+    public long consumirPorIp(String ip) {
+        return consumir(cubetasIp, porIp, ip);
+    }
+
+    public long consumirPorEmail(String email) {
+        return consumir(cubetasEmail, porEmail, email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    @Scheduled(fixedDelayString = "${seguridad.limite.limpieza-ms:60000}")
+    public void purgarCubetasLlenas() {
+        long ahora = reloj.getAsLong();
+        purgar(cubetasIp, ahora);
+        purgar(cubetasEmail, ahora);
+    }
+
+    public int cubetasActivas() {
+        return cubetasIp.size() + cubetasEmail.size();
+    }
+
+    private long consumir(Map<String, CubetaTokens> cubetas, Limite limite, String clave) {
+        long ahora = reloj.getAsLong();
+        while (true) {
+            CubetaTokens cubeta = cubetas.computeIfAbsent(clave,
+                    c -> new CubetaTokens(limite.capacidad(), limite.tokensPorNano(), ahora));
+            long espera = cubeta.consumir(ahora);
+            // Si la purga la quito antes de consumir, lo consumido no cuenta: se repite en la nueva
+            if (cubetas.get(clave) == cubeta) {
+                return espera;
+            }
+        }
+    }
+
+    // La cubeta se vuelve a revisar dentro del lock de su entrada: si alguien consumio
+    // despues de la revision anterior ya no esta llena y se conserva
+    private static void purgar(Map<String, CubetaTokens> cubetas, long ahora) {
+        for (String clave : cubetas.keySet()) {
+            cubetas.computeIfPresent(clave, (c, cubeta) -> cubeta.estaLlena(ahora) ? null : cubeta);
+        }
+    }
+
+    record Limite(int capacidad, int recargaPorMinuto) {
+
+        double tokensPorNano() {
+            return recargaPorMinuto / (double) TimeUnit.MINUTES.toNanos(1);
+        }
+    }
+}
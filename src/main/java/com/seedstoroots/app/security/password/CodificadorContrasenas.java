@@ -0,0 +1,140 @@
+package com.seedstoroots.app.security.password;
+
+import com.seedstoroots.app.dto.EstadisticasHashingResponse;
+import com.seedstoroots.app.exception.ServicioSaturadoException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordEncoder que ejecuta BCrypt en un pool propio de tamano fijo con cola acotada, asi
+ * una rafaga de logins no ocupa todos los hilos de Tomcat ni la CPU del resto de la API.
+ * Si la cola esta llena, o el resultado no llega dentro de la espera maxima, se rechaza de
+ * inmediato con ServicioSaturadoException en vez de acumular requests. Se mide por separado
+ * el tiempo en cola y el tiempo de hash.
+ */
+@Component
+public class CodificadorContrasenas implements PasswordEncoder {
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final int capacidadCola;
+    private final long esperaMaximaMs;
+    private final int retryAfterSegundos;
+
+    private final LongAdder completadas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder nanosEnCola = new LongAdder();
+    private final LongAdder nanosHash = new LongAdder();
+    private final LongAccumulator maximoNanosEnCola = new LongAccumulator(Long::max, 0);
+
+    @Autowired
+    public CodificadorContrasenas(@Value("${seguridad.hash.hilos:0}") int hilos,
+                                  @Value("${seguridad.hash.cola:64}") int capacidadCola,
+                                  @Value("${seguridad.hash.espera-max-ms:5000}") long esperaMaximaMs,
+                                  @Value("${seguridad.hash.retry-after-segundos:2}") int retryAfterSegundos) {
+        this(new BCryptPasswordEncoder(), hilos, capacidadCola, esperaMaximaMs, retryAfterSegundos);
+    }
+
+    CodificadorContrasenas(PasswordEncoder delegado, int hilos, int capacidadCola,
+                           long esperaMaximaMs, int retryAfterSegundos) {
+        // Sin valor configurado se usa un hilo por nucleo: BCrypt es solo CPU
+        int tamano = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("hash-contrasenas-");
+        threadFactory.setDaemon(true);
+        this.delegado = delegado;
+        this.capacidadCola = capacidadCola;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.retryAfterSegundos = retryAfterSegundos;
+        this.executor = new ThreadPoolExecutor(tamano, tamano, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    public EstadisticasHashingResponse obtenerEstadisticas() {
+        long total = completadas.sum();
+        return new EstadisticasHashingResponse(
+                executor.getMaximumPoolSize(),
+                capacidadCola,
+                executor.getQueue().size(),
+                executor.getActiveCount(),
+                total,
+                rechazadas.sum(),
+                total == 0 ? 0.0 : nanosEnCola.sum() / 1e6 / total,
+                maximoNanosEnCola.get() / 1e6,
+                total == 0 ? 0.0 : nanosHash.sum() / 1e6 / total
+        );
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdown();
+    }
+
+    private <T> T ejecutar(Callable<T> operacion) {
+        long encolado = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                long inicio = System.nanoTime();
+                long enCola = inicio - encolado;
+                nanosEnCola.add(enCola);
+                maximoNanosEnCola.accumulate(enCola);
+                try {
+                    return operacion.call();
+                } finally {
+                    nanosHash.add(System.nanoTime() - inicio);
+                    completadas.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            throw saturado();
+        }
+
+        try {
+            return futuro.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            rechazadas.increment();
+            throw saturado();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw saturado();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ServicioSaturadoException saturado() {
+        return new ServicioSaturadoException("Servicio de autenticacion saturado", retryAfterSegundos);
+    }
+}
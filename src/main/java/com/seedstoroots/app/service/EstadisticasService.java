@@ -1,7 +1,15 @@
 package com.seedstoroots.app.service;
 
+import com.seedstoroots.app.dto.EstadisticasHashingResponse;
 import com.seedstoroots.app.dto.EstadisticasResponse;
+import com.seedstoroots.app.dto.ProductoBajoStockResponse;
+
+import java.util.List;
 
 public interface EstadisticasService {
     EstadisticasResponse obtenerEstadisticas();
+
+    List<ProductoBajoStockResponse> obtenerProductosBajoStock();
+
+    EstadisticasHashingResponse obtenerEstadisticasHashing();
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.seedstoroots.app.service;
+
+import java.io.OutputStream;
+
+public interface ExportacionProductoService {
+
+    enum Formato { NDJSON, CSV }
+
+    void exportar(OutputStream salida, Formato formato);
+}
@@ -0,0 +1,9 @@
+package com.seedstoroots.app.service;
+
+import com.seedstoroots.app.dto.ImportacionResponse;
+
+import java.io.InputStream;
+
+public interface ImportacionProductoService {
+    ImportacionResponse importar(InputStream entrada, String contentType);
+}
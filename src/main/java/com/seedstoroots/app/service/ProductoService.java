@@ -1,20 +1,40 @@
 package com.seedstoroots.app.service;
 
+import com.seedstoroots.app.catalogo.CatalogoPayloadCache;
+import com.seedstoroots.app.dto.ActualizacionMasivaRequest;
+import com.seedstoroots.app.dto.ActualizacionMasivaResponse;
+import com.seedstoroots.app.dto.CambiosCatalogoResponse;
+import com.seedstoroots.app.dto.FacetasResponse;
+import com.seedstoroots.app.dto.PaginaResponse;
 import com.seedstoroots.app.dto.ProductoRequest;
 import com.seedstoroots.app.dto.ProductoResponse;
+import com.seedstoroots.app.dto.ProductoSummaryResponse;
 import com.seedstoroots.app.entity.Producto;
+import com.seedstoroots.app.repository.FiltroProductos;
 
 import java.util.List;
 
 public interface ProductoService {
 
+    void recargarCatalogo();
+
     List<ProductoResponse> obtenerTodos();
+    String obtenerHuellaCatalogo();
+    CatalogoPayloadCache.Payload obtenerCatalogoSerializado();
+    PaginaResponse<ProductoSummaryResponse> obtenerPagina(FiltroProductos filtro, String cursor, int size);
     ProductoResponse obtenerPorId(Long id);
+    ProductoResponse obtenerPorSku(String sku);
 
     List<ProductoResponse> obtenerRecientes(int limit);
+    CambiosCatalogoResponse obtenerCambios(long desde, int limit);
+
+    List<ProductoResponse> buscar(String consulta, int limit);
+    List<ProductoSummaryResponse> autocompletar(String prefijo, int limit);
+    FacetasResponse obtenerFacetas(String categoria);
 
     ProductoResponse crear(ProductoRequest request);
     ProductoResponse actualizar(Long id, ProductoRequest request);
+    ActualizacionMasivaResponse actualizarMasivo(List<ActualizacionMasivaRequest> cambios);
 
     void eliminar(Long id);
 }
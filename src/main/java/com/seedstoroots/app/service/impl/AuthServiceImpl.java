@@ -8,7 +8,10 @@ import com.seedstoroots.app.entity.Usuario;
 import com.seedstoroots.app.repository.UsuarioRepository;
 import com.seedstoroots.app.security.jwt.JwtUtil;
 import com.seedstoroots.app.service.AuthService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.seedstoroots.app.usuario.RegistroUltimoLogin;
+import com.seedstoroots.app.usuario.UsuariosRegistrados;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -18,12 +21,17 @@ public class AuthServiceImpl implements AuthService {
 
     private final UsuarioRepository usuarioRepository;
     private final JwtUtil jwtUtil;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final RegistroUltimoLogin registroUltimoLogin;
+    private final UsuariosRegistrados usuariosRegistrados;
 
-    public AuthServiceImpl(UsuarioRepository usuarioRepository, JwtUtil jwtUtil) {
+    public AuthServiceImpl(UsuarioRepository usuarioRepository, JwtUtil jwtUtil, PasswordEncoder passwordEncoder,
+                           RegistroUltimoLogin registroUltimoLogin, UsuariosRegistrados usuariosRegistrados) {
         this.usuarioRepository = usuarioRepository;
         this.jwtUtil = jwtUtil;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordEncoder = passwordEncoder;
+        this.registroUltimoLogin = registroUltimoLogin;
+        this.usuariosRegistrados = usuariosRegistrados;
     }
 
     @Override
@@ -42,10 +50,9 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Usuario inactivo");
         }
 
-        // Actualizamos el ultimo login del usuario
+        // Anotamos el ultimo login; se escribe en la base de datos en lote, fuera del request
 
-        usuario.setUltimoLogin(LocalDateTime.now());
-        usuarioRepository.save(usuario);
+        registroUltimoLogin.registrar(usuario.getId(), LocalDateTime.now());
 
         // Gereramos el token
 
@@ -61,13 +68,15 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public AuthResponse register(RegisterRequest request) {
-        // Validar que no exista el email
-        if (usuarioRepository.existsByEmail(request.getEmail())) {
+        // Validar que no exista el email; solo se consulta si el filtro de registrados no lo descarta
+        if (usuariosRegistrados.podriaExistirEmail(request.getEmail())
+                && usuarioRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("El email ya está registrado");
         }
 
         // Validar que no exista el RUN
-        if (usuarioRepository.existsByRun(request.getRun())) {
+        if (usuariosRegistrados.podriaExistirRun(request.getRun())
+                && usuarioRepository.existsByRun(request.getRun())) {
             throw new RuntimeException("El RUN ya está registrado");
         }
 
@@ -87,7 +96,13 @@ public class AuthServiceImpl implements AuthService {
         usuario.setRol(Rol.CLIENTE); // Por defecto todos son clientes
         usuario.setActivo(true);
 
-        usuarioRepository.save(usuario);
+        // Las restricciones unique resuelven los registros simultaneos con el mismo email o RUN
+        try {
+            usuarioRepository.saveAndFlush(usuario);
+        } catch (DataIntegrityViolationException e) {
+            throw UsuariosRegistrados.errorDeDuplicado(e);
+        }
+        usuariosRegistrados.agregar(usuario.getEmail(), usuario.getRun());
 
         // Generar token
         String token = jwtUtil.generateToken(
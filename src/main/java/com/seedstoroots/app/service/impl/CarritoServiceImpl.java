@@ -1,16 +1,20 @@
 package com.seedstoroots.app.service.impl;
 
+import com.seedstoroots.app.catalogo.StockVerificadoEvento;
 import com.seedstoroots.app.dto.CarritoItemResponse;
 import com.seedstoroots.app.dto.CarritoRequest;
 import com.seedstoroots.app.dto.CarritoResponse;
 import com.seedstoroots.app.entity.*;
 import com.seedstoroots.app.repository.*;
 import com.seedstoroots.app.service.CarritoService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,32 +25,43 @@ public class CarritoServiceImpl implements CarritoService {
     private final CarritoItemRepository carritoItemRepository;
     private final UsuarioRepository usuarioRepository;
     private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CarritoServiceImpl(CarritoRepository carritoRepository,
                               CarritoItemRepository carritoItemRepository,
                               UsuarioRepository usuarioRepository,
-                              ProductoRepository productoRepository) {
+                              ProductoRepository productoRepository,
+                              ApplicationEventPublisher eventPublisher) {
         this.carritoRepository = carritoRepository;
         this.carritoItemRepository = carritoItemRepository;
         this.usuarioRepository = usuarioRepository;
         this.productoRepository = productoRepository;
+        this.eventPublisher = eventPublisher;
     }
 
+    // Leer nunca escribe: sin carrito activo se responde uno vacio y se crea recien al agregar un producto
     @Override
+    @Transactional(readOnly = true)
     public CarritoResponse obtenerCarrito(Long usuarioId) {
-        Carrito carrito = obtenerOCrearCarrito(usuarioId);
-        return convertirAResponse(carrito);
+        List<CarritoItemFila> filas = carritoRepository.findFilasByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO);
+        if (filas.isEmpty()) {
+            return carritoVacio(usuarioId);
+        }
+        return convertirFilasAResponse(filas);
     }
 
     @Override
     public CarritoResponse agregarProducto(Long usuarioId, CarritoRequest request) {
-        Carrito carrito = obtenerOCrearCarrito(usuarioId);
         int cantidadSolicitada = validarCantidad(request.getCantidad());
+        // Se lee primero el carrito: si el producto ya esta en el, findById lo toma del contexto sin otro SELECT
+        Optional<Carrito> existente = buscarCarrito(usuarioId);
 
         Producto producto = productoRepository.findById(request.getProductoId())
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
         asegurarProductoDisponible(producto);
 
+        Carrito carrito = existente.orElseGet(() -> nuevoCarrito(usuarioId));
+
         // Verificar si el producto ya esta en el carrito
         CarritoItem itemExistente = carrito.getItems().stream()
                 .filter(item -> item.getProducto().getId().equals(producto.getId()))
@@ -80,8 +95,9 @@ public class CarritoServiceImpl implements CarritoService {
 
     @Override
     public CarritoResponse actualizarCantidad(Long usuarioId, CarritoRequest request) {
-        Carrito carrito = obtenerOCrearCarrito(usuarioId);
         int cantidadSolicitada = validarCantidad(request.getCantidad());
+        Carrito carrito = buscarCarrito(usuarioId)
+                .orElseThrow(() -> new RuntimeException("Producto no encontrado en el carrito"));
 
         CarritoItem item = carrito.getItems().stream()
                 .filter(i -> i.getProducto().getId().equals(request.getProductoId()))
@@ -102,7 +118,10 @@ public class CarritoServiceImpl implements CarritoService {
 
     @Override
     public CarritoResponse eliminarProducto(Long usuarioId, Long productoId) {
-        Carrito carrito = obtenerOCrearCarrito(usuarioId);
+        Carrito carrito = buscarCarrito(usuarioId).orElse(null);
+        if (carrito == null) {
+            return carritoVacio(usuarioId);
+        }
 
         carrito.getItems().removeIf(item -> item.getProducto().getId().equals(productoId));
 
@@ -112,22 +131,30 @@ public class CarritoServiceImpl implements CarritoService {
 
     @Override
     public void limpiarCarrito(Long usuarioId) {
-        Carrito carrito = obtenerOCrearCarrito(usuarioId);
-        carrito.getItems().clear();
-        carritoRepository.save(carrito);
+        buscarCarrito(usuarioId).ifPresent(carrito -> {
+            carrito.getItems().clear();
+            carritoRepository.save(carrito);
+        });
+    }
+
+    private Optional<Carrito> buscarCarrito(Long usuarioId) {
+        return carritoRepository.findConItemsByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO);
     }
 
-    private Carrito obtenerOCrearCarrito(Long usuarioId) {
-        Usuario usuario = usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        return carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO)
-                .orElseGet(() -> {
-                    Carrito nuevoCarrito = new Carrito();
-                    nuevoCarrito.setUsuario(usuario);
-                    nuevoCarrito.setEstado(EstadoCarrito.ACTIVO);
-                    return carritoRepository.save(nuevoCarrito);
-                });
+    // El controlador ya verifico que el usuario es el autenticado, asi que basta una referencia sin SELECT
+    private Carrito nuevoCarrito(Long usuarioId) {
+        Carrito carrito = new Carrito();
+        carrito.setUsuario(usuarioRepository.getReferenceById(usuarioId));
+        carrito.setEstado(EstadoCarrito.ACTIVO);
+        return carrito;
+    }
+
+    private CarritoResponse carritoVacio(Long usuarioId) {
+        CarritoResponse response = new CarritoResponse();
+        response.setUsuarioId(usuarioId);
+        response.setItems(List.of());
+        response.setTotal(BigDecimal.ZERO);
+        return response;
     }
 
     private CarritoResponse convertirAResponse(Carrito carrito) {
@@ -148,6 +175,33 @@ public class CarritoServiceImpl implements CarritoService {
         return response;
     }
 
+    private CarritoResponse convertirFilasAResponse(List<CarritoItemFila> filas) {
+        CarritoResponse response = new CarritoResponse();
+        response.setId(filas.get(0).getCarritoId());
+        response.setUsuarioId(filas.get(0).getUsuarioId());
+
+        List<CarritoItemResponse> items = new ArrayList<>(filas.size());
+        for (CarritoItemFila fila : filas) {
+            if (fila.getItemId() == null) {
+                continue;
+            }
+            CarritoItemResponse item = new CarritoItemResponse();
+            item.setId(fila.getItemId());
+            item.setProductoId(fila.getProductoId());
+            item.setProductoNombre(fila.getProductoNombre());
+            item.setProductoImagen(fila.getProductoImagen());
+            item.setPrecioUnitario(fila.getPrecioUnitario());
+            item.setCantidad(fila.getCantidad());
+            item.setSubtotal(fila.getSubtotal());
+            items.add(item);
+        }
+        response.setItems(items);
+        response.setTotal(items.stream()
+                .map(CarritoItemResponse::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return response;
+    }
+
     private CarritoItemResponse convertirItemAResponse(CarritoItem item) {
         CarritoItemResponse response = new CarritoItemResponse();
         response.setId(item.getId());
@@ -175,6 +229,7 @@ public class CarritoServiceImpl implements CarritoService {
 
     private void validarStockDisponible(Producto producto, int cantidadRequerida) {
         Integer stock = producto.getStock();
+        eventPublisher.publishEvent(new StockVerificadoEvento(producto.getId(), stock, cantidadRequerida));
         if (stock == null || cantidadRequerida > stock) {
             throw new RuntimeException("Stock insuficiente para el producto");
         }
@@ -1,23 +1,36 @@
 package com.seedstoroots.app.service.impl;
 
+import com.seedstoroots.app.catalogo.MonitorStockBajo;
+import com.seedstoroots.app.dto.EstadisticasHashingResponse;
 import com.seedstoroots.app.dto.EstadisticasResponse;
+import com.seedstoroots.app.dto.ProductoBajoStockResponse;
 import com.seedstoroots.app.repository.ProductoRepository;
 import com.seedstoroots.app.repository.UsuarioRepository;
+import com.seedstoroots.app.security.password.CodificadorContrasenas;
 import com.seedstoroots.app.service.EstadisticasService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @Transactional(readOnly = true)
 public class EstadisticasServiceImpl implements EstadisticasService {
 
     private final ProductoRepository productoRepository;
     private final UsuarioRepository usuarioRepository;
+    private final MonitorStockBajo monitorStockBajo;
+    private final CodificadorContrasenas codificadorContrasenas;
 
     public EstadisticasServiceImpl(ProductoRepository productoRepository,
-                                   UsuarioRepository usuarioRepository) {
+                                   UsuarioRepository usuarioRepository,
+                                   MonitorStockBajo monitorStockBajo,
+                                   CodificadorContrasenas codificadorContrasenas) {
         this.productoRepository = productoRepository;
         this.usuarioRepository = usuarioRepository;
+        this.monitorStockBajo = monitorStockBajo;
+        this.codificadorContrasenas = codificadorContrasenas;
     }
 
     @Override
@@ -27,7 +40,7 @@ public class EstadisticasServiceImpl implements EstadisticasService {
 
         Long productosActivos = productoRepository.countByActivoTrue();
         Long usuariosActivos = usuarioRepository.countByActivoTrue();
-        Long productosBajoStock = productoRepository.countByStockLessThan(10);
+        Long productosBajoStock = (long) monitorStockBajo.contar();
 
         return new EstadisticasResponse(
                 totalProductos,
@@ -37,4 +50,16 @@ public class EstadisticasServiceImpl implements EstadisticasService {
                 productosBajoStock
         );
     }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductoBajoStockResponse> obtenerProductosBajoStock() {
+        return monitorStockBajo.listar();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public EstadisticasHashingResponse obtenerEstadisticasHashing() {
+        return codificadorContrasenas.obtenerEstadisticas();
+    }
 }
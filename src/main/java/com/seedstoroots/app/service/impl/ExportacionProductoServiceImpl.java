@@ -0,0 +1,114 @@
+package com.seedstoroots.app.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seedstoroots.app.dto.ProductoResponse;
+import com.seedstoroots.app.entity.Producto;
+import com.seedstoroots.app.repository.ProductoRepository;
+import com.seedstoroots.app.service.ExportacionProductoService;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta el catalogo activo fila por fila desde un cursor de la base de datos. Cada producto
+ * se escribe y se desprende del contexto de persistencia antes de leer el siguiente, asi la
+ * memoria usada no depende del tamano del catalogo.
+ */
+@Service
+public class ExportacionProductoServiceImpl implements ExportacionProductoService {
+
+    // Mismas columnas que acepta la importacion, para poder volver a cargar el archivo
+    private static final String ENCABEZADO_CSV =
+            "id,sku,nombre,descripcion,categoria,precio,stock,imagen,activo,fechaCreacion,fechaActualizacion";
+
+    private final ProductoRepository productoRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExportacionProductoServiceImpl(ProductoRepository productoRepository,
+                                          EntityManager entityManager,
+                                          ObjectMapper objectMapper) {
+        this.productoRepository = productoRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(OutputStream salida, Formato formato) {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        try (Stream<Producto> productos = productoRepository.streamProductosActivos()) {
+            if (formato == Formato.CSV) {
+                escritor.write(ENCABEZADO_CSV);
+                escritor.write('\n');
+            }
+            Iterator<Producto> iterador = productos.iterator();
+            while (iterador.hasNext()) {
+                Producto producto = iterador.next();
+                if (formato == Formato.CSV) {
+                    escribirCsv(escritor, producto);
+                } else {
+                    escritor.write(objectMapper.writeValueAsString(convertirAResponse(producto)));
+                }
+                escritor.write('\n');
+                entityManager.detach(producto);
+            }
+            escritor.flush();
+        } catch (IOException e) {
+            // Normalmente el cliente corto la conexion; el cursor se cierra igual con el try
+            throw new UncheckedIOException("No se pudo escribir la exportación", e);
+        }
+    }
+
+    private void escribirCsv(Writer escritor, Producto producto) throws IOException {
+        Object[] valores = {
+                producto.getId(), producto.getSku(), producto.getNombre(), producto.getDescripcion(),
+                producto.getCategoria(), producto.getPrecio(), producto.getStock(), producto.getImagen(),
+                producto.getActivo(), producto.getFechaCreacion(), producto.getFechaActualizacion()
+        };
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            escritor.write(campoCsv(valores[i]));
+        }
+    }
+
+    // Entre comillas solo si hace falta; las comillas internas se duplican
+    private String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
+    private ProductoResponse convertirAResponse(Producto producto) {
+        ProductoResponse response = new ProductoResponse();
+        response.setId(producto.getId());
+        response.setNombre(producto.getNombre());
+        response.setDescripcion(producto.getDescripcion());
+        response.setCategoria(producto.getCategoria());
+        response.setPrecio(producto.getPrecio());
+        response.setStock(producto.getStock());
+        response.setSku(producto.getSku());
+        response.setImagen(producto.getImagen());
+        response.setActivo(producto.getActivo());
+        response.setFechaCreacion(producto.getFechaCreacion());
+        response.setFechaActualizacion(producto.getFechaActualizacion());
+        return response;
+    }
+}
@@ -0,0 +1,285 @@
+package com.seedstoroots.app.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seedstoroots.app.dto.ErrorImportacionResponse;
+import com.seedstoroots.app.dto.ImportacionResponse;
+import com.seedstoroots.app.dto.ProductoRequest;
+import com.seedstoroots.app.entity.Producto;
+import com.seedstoroots.app.repository.ProductoJdbcRepository;
+import com.seedstoroots.app.service.ImportacionProductoService;
+import com.seedstoroots.app.service.ProductoService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Importa productos desde CSV o NDJSON leyendo el cuerpo registro por registro: en memoria solo
+ * vive el lote en curso. Un registro CSV puede ocupar varias lineas si un campo entre comillas
+ * trae saltos de linea (RFC 4180), como los que escribe la exportacion. Cada lote se guarda en su propia transaccion, asi un error no
+ * deshace lo ya importado; si un lote falla se reintenta fila por fila para reportar
+ * exactamente cuales filas tienen problemas.
+ */
+@Service
+public class ImportacionProductoServiceImpl implements ImportacionProductoService {
+
+    private static final int MAXIMO_ERRORES_DETALLADOS = 1000;
+    // Una comilla sin cerrar no debe arrastrar el resto del archivo a memoria
+    private static final int MAXIMO_CARACTERES_REGISTRO = 1_000_000;
+
+    private final ProductoJdbcRepository productoJdbcRepository;
+    private final ProductoService productoService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int tamanoLote;
+
+    public ImportacionProductoServiceImpl(ProductoJdbcRepository productoJdbcRepository,
+                                          ProductoService productoService,
+                                          PlatformTransactionManager transactionManager,
+                                          ObjectMapper objectMapper,
+                                          @Value("${catalogo.importacion.tamano-lote:500}") int tamanoLote) {
+        this.productoJdbcRepository = productoJdbcRepository;
+        this.productoService = productoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Override
+    public ImportacionResponse importar(InputStream entrada, String contentType) {
+        boolean csv = esCsv(contentType);
+        ImportacionResponse resultado = new ImportacionResponse();
+        List<Fila> lote = new ArrayList<>(tamanoLote);
+
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columnas = csv ? leerEncabezados(lector) : null;
+            long numero = csv ? 1 : 0;
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numero++;
+                // Los errores se reportan con la linea donde empieza el registro
+                long fila = numero;
+                boolean comillasAbiertas = csv && comillasImpares(linea);
+                if (comillasAbiertas) {
+                    StringBuilder registro = new StringBuilder(linea);
+                    String siguiente;
+                    while (comillasAbiertas && registro.length() <= MAXIMO_CARACTERES_REGISTRO
+                            && (siguiente = lector.readLine()) != null) {
+                        numero++;
+                        registro.append('\n').append(siguiente);
+                        comillasAbiertas ^= comillasImpares(siguiente);
+                    }
+                    linea = registro.toString();
+                }
+                if (linea.isBlank()) {
+                    continue;
+                }
+                resultado.setFilasProcesadas(resultado.getFilasProcesadas() + 1);
+                if (comillasAbiertas) {
+                    registrarError(resultado, fila, null, "Campo entre comillas sin cerrar");
+                    continue;
+                }
+
+                try {
+                    ProductoRequest request = csv
+                            ? leerFilaCsv(columnas, linea)
+                            : objectMapper.readValue(linea, ProductoRequest.class);
+                    lote.add(new Fila(fila, aProducto(request)));
+                } catch (JsonProcessingException e) {
+                    registrarError(resultado, fila, null, "JSON inválido");
+                } catch (RuntimeException e) {
+                    registrarError(resultado, fila, null, e.getMessage());
+                }
+
+                if (lote.size() >= tamanoLote) {
+                    guardarLote(lote, resultado);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                guardarLote(lote, resultado);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el archivo de importación");
+        } finally {
+            // Las operaciones masivas no pasan por los eventos por producto: se recarga una sola vez
+            if (resultado.getFilasImportadas() > 0) {
+                productoService.recargarCatalogo();
+            }
+        }
+        return resultado;
+    }
+
+    private void guardarLote(List<Fila> lote, ImportacionResponse resultado) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> guardar(lote));
+            resultado.setFilasImportadas(resultado.getFilasImportadas() + lote.size());
+        } catch (DataAccessException e) {
+            for (Fila fila : lote) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> guardar(List.of(fila)));
+                    resultado.setFilasImportadas(resultado.getFilasImportadas() + 1);
+                } catch (DataAccessException errorFila) {
+                    registrarError(resultado, fila.numero(), fila.producto().getSku(),
+                            errorFila.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    // El registro de cambios va en la misma transaccion que los productos del lote
+    private void guardar(List<Fila> filas) {
+        List<Producto> productos = filas.stream().map(Fila::producto).toList();
+        productoJdbcRepository.upsertPorSku(productos);
+        productoJdbcRepository.registrarCambiosPorSku(productos.stream().map(Producto::getSku).toList());
+    }
+
+    private Producto aProducto(ProductoRequest request) {
+        if (request.getSku() == null || request.getSku().isBlank()) {
+            throw new RuntimeException("El SKU es obligatorio");
+        }
+        if (request.getNombre() == null || request.getNombre().isBlank()) {
+            throw new RuntimeException("El nombre es obligatorio");
+        }
+        if (request.getPrecio() == null || request.getPrecio().signum() < 0) {
+            throw new RuntimeException("El precio es obligatorio y no puede ser negativo");
+        }
+        if (request.getStock() != null && request.getStock() < 0) {
+            throw new RuntimeException("El stock no puede ser negativo");
+        }
+
+        Producto producto = new Producto();
+        producto.setNombre(request.getNombre());
+        producto.setDescripcion(request.getDescripcion());
+        producto.setCategoria(request.getCategoria());
+        producto.setPrecio(request.getPrecio());
+        producto.setStock(request.getStock() != null ? request.getStock() : 0);
+        producto.setSku(request.getSku().trim());
+        producto.setImagen(request.getImagen());
+        producto.setActivo(request.getActivo() != null ? request.getActivo() : true);
+        return producto;
+    }
+
+    private void registrarError(ImportacionResponse resultado, long fila, String sku, String mensaje) {
+        resultado.setFilasConError(resultado.getFilasConError() + 1);
+        if (resultado.getErrores().size() < MAXIMO_ERRORES_DETALLADOS) {
+            resultado.getErrores().add(new ErrorImportacionResponse(fila, sku, mensaje));
+        }
+    }
+
+    private boolean esCsv(String contentType) {
+        String tipo = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (tipo.startsWith("text/csv")) {
+            return true;
+        }
+        if (tipo.startsWith("application/x-ndjson") || tipo.startsWith("application/jsonl")) {
+            return false;
+        }
+        throw new RuntimeException("Formato no soportado: use text/csv o application/x-ndjson");
+    }
+
+    private Map<String, Integer> leerEncabezados(BufferedReader lector) throws IOException {
+        String encabezado = lector.readLine();
+        if (encabezado == null) {
+            return Map.of();
+        }
+        // Quita el BOM que agregan algunas planillas al exportar
+        if (encabezado.startsWith("\uFEFF")) {
+            encabezado = encabezado.substring(1);
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        List<String> nombres = separarCsv(encabezado);
+        for (int i = 0; i < nombres.size(); i++) {
+            columnas.put(nombres.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columnas;
+    }
+
+    private ProductoRequest leerFilaCsv(Map<String, Integer> columnas, String linea) {
+        List<String> valores = separarCsv(linea);
+        ProductoRequest request = new ProductoRequest();
+        request.setNombre(valor(columnas, valores, "nombre"));
+        request.setDescripcion(valor(columnas, valores, "descripcion"));
+        request.setCategoria(valor(columnas, valores, "categoria"));
+        request.setSku(valor(columnas, valores, "sku"));
+        request.setImagen(valor(columnas, valores, "imagen"));
+
+        String precio = valor(columnas, valores, "precio");
+        String stock = valor(columnas, valores, "stock");
+        String activo = valor(columnas, valores, "activo");
+        try {
+            request.setPrecio(precio != null ? new BigDecimal(precio) : null);
+            request.setStock(stock != null ? Integer.valueOf(stock) : null);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Precio o stock con formato inválido");
+        }
+        request.setActivo(activo != null ? Boolean.valueOf(activo) : null);
+        return request;
+    }
+
+    private String valor(Map<String, Integer> columnas, List<String> valores, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= valores.size()) {
+            return null;
+        }
+        String valor = valores.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    // Una comilla escapada ("") suma dos, asi que un numero impar deja un campo abierto
+    private boolean comillasImpares(String linea) {
+        int comillas = 0;
+        for (int i = 0; i < linea.length(); i++) {
+            if (linea.charAt(i) == '"') {
+                comillas++;
+            }
+        }
+        return comillas % 2 != 0;
+    }
+
+    // Separa un registro CSV respetando comillas dobles ("" dentro de comillas es una comilla literal)
+    private List<String> separarCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    private record Fila(long numero, Producto producto) {
+    }
+}
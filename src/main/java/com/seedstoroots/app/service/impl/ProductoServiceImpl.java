@@ -1,50 +1,285 @@
 package com.seedstoroots.app.service.impl;
 
+import com.seedstoroots.app.catalogo.AutocompletadoProductos;
+import com.seedstoroots.app.catalogo.CatalogoCache;
+import com.seedstoroots.app.catalogo.CatalogoModificadoEvento;
+import com.seedstoroots.app.catalogo.CatalogoPayloadCache;
+import com.seedstoroots.app.catalogo.CatalogoRecargadoEvento;
+import com.seedstoroots.app.catalogo.CatalogoSnapshot;
+import com.seedstoroots.app.catalogo.FacetasCatalogo;
+import com.seedstoroots.app.catalogo.IndiceBusqueda;
+import com.seedstoroots.app.catalogo.IndiceSku;
+import com.seedstoroots.app.catalogo.ProductoEvento;
+import com.seedstoroots.app.catalogo.ProductosRecientes;
+import com.seedstoroots.app.dto.ActualizacionMasivaRequest;
+import com.seedstoroots.app.dto.ActualizacionMasivaResponse;
+import com.seedstoroots.app.dto.CambiosCatalogoResponse;
+import com.seedstoroots.app.dto.FacetasResponse;
+import com.seedstoroots.app.dto.PaginaResponse;
 import com.seedstoroots.app.dto.ProductoRequest;
 import com.seedstoroots.app.dto.ProductoResponse;
+import com.seedstoroots.app.dto.ProductoSummaryResponse;
+import com.seedstoroots.app.entity.CambioProducto;
 import com.seedstoroots.app.entity.Producto;
+import com.seedstoroots.app.repository.CambioProductoRepository;
+import com.seedstoroots.app.repository.FiltroProductos;
+import com.seedstoroots.app.repository.ProductoJdbcRepository;
 import com.seedstoroots.app.repository.ProductoRepository;
+import com.seedstoroots.app.repository.ProductoResumen;
+import com.seedstoroots.app.repository.UltimoCambio;
 import com.seedstoroots.app.service.ProductoService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductoServiceImpl implements ProductoService {
 
+    private static final int TAMANO_MAXIMO_PAGINA = 100;
+    private static final int TAMANO_MAXIMO_CAMBIOS = 1000;
+
     private final ProductoRepository productoRepository;
+    private final ProductoJdbcRepository productoJdbcRepository;
+    private final CambioProductoRepository cambioProductoRepository;
+    private final CatalogoCache catalogoCache;
+    private final CatalogoPayloadCache catalogoPayloadCache;
+    private final ProductosRecientes productosRecientes;
+    private final IndiceBusqueda indiceBusqueda;
+    private final IndiceSku indiceSku;
+    private final AutocompletadoProductos autocompletado;
+    private final FacetasCatalogo facetasCatalogo;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductoServiceImpl(ProductoRepository productoRepository) {
+    public ProductoServiceImpl(ProductoRepository productoRepository,
+                               ProductoJdbcRepository productoJdbcRepository,
+                               CambioProductoRepository cambioProductoRepository,
+                               CatalogoCache catalogoCache,
+                               CatalogoPayloadCache catalogoPayloadCache,
+                               ProductosRecientes productosRecientes,
+                               IndiceBusqueda indiceBusqueda,
+                               IndiceSku indiceSku,
+                               AutocompletadoProductos autocompletado,
+                               FacetasCatalogo facetasCatalogo,
+                               ApplicationEventPublisher eventPublisher) {
         this.productoRepository = productoRepository;
+        this.productoJdbcRepository = productoJdbcRepository;
+        this.cambioProductoRepository = cambioProductoRepository;
+        this.catalogoCache = catalogoCache;
+        this.catalogoPayloadCache = catalogoPayloadCache;
+        this.productosRecientes = productosRecientes;
+        this.indiceBusqueda = indiceBusqueda;
+        this.indiceSku = indiceSku;
+        this.autocompletado = autocompletado;
+        this.facetasCatalogo = facetasCatalogo;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
-    public List<ProductoResponse> obtenerTodos() {
-        return productoRepository.findAll()
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void recargarCatalogo() {
+        // Se toma antes de leer: lo que se aplique desde aqui se reaplica sobre esta lectura
+        long versionLeida = catalogoCache.obtenerSnapshot().getVersion();
+        List<ProductoResponse> activos = productoRepository.findByActivoTrue()
                 .stream()
                 .map(this::convertirAResponse)
                 .collect(Collectors.toList());
+        eventPublisher.publishEvent(new CatalogoRecargadoEvento(activos, versionLeida));
+    }
+
+    // Los productos creados antes de existir el registro de cambios entran con una fila inicial
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarRegistroCambios() {
+        if (cambioProductoRepository.count() == 0) {
+            productoJdbcRepository.registrarCambiosIniciales();
+        }
+        productoJdbcRepository.inicializarSecuenciaCambios();
+    }
+
+    // Los ids IDENTITY se toman al insertar y no respetan el orden de commit; la secuencia que ven
+    // los clientes se asigna aca, despues del commit y de a un publicador a la vez
+    @Scheduled(fixedDelayString = "${catalogo.cambios.intervalo-publicacion-ms:500}")
+    public void publicarCambios() {
+        productoJdbcRepository.publicarCambiosPendientes();
+    }
+
+    @Scheduled(fixedDelayString = "${catalogo.cambios.intervalo-compactacion-ms:3600000}")
+    public void compactarCambios() {
+        productoJdbcRepository.compactarCambios();
+    }
+
+    // Corre despues del commit de la operacion masiva, por eso necesita su propia transaccion
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarCatalogo(CatalogoModificadoEvento evento) {
+        recargarCatalogo();
+    }
+
+    // Las lecturas servidas desde el snapshot no abren transaccion ni piden conexion
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductoResponse> obtenerTodos() {
+        return catalogoCache.obtenerSnapshot().getProductos();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String obtenerHuellaCatalogo() {
+        return catalogoCache.obtenerSnapshot().getHuella();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CatalogoPayloadCache.Payload obtenerCatalogoSerializado() {
+        return catalogoPayloadCache.obtener(catalogoCache.obtenerSnapshot());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<ProductoSummaryResponse> obtenerPagina(FiltroProductos filtro, String cursor, int size) {
+        int tamano = Math.max(1, Math.min(size, TAMANO_MAXIMO_PAGINA));
+        Posicion desde = cursor == null || cursor.isBlank()
+                ? new Posicion(null, null)
+                : decodificarCursor(cursor, filtro.orden());
+
+        // Se pide un elemento extra solo para saber si existe una pagina siguiente
+        List<ProductoResumen> productos = productoRepository.buscarResumen(filtro, desde.valor(), desde.id(), tamano + 1);
+
+        String siguiente = null;
+        if (productos.size() > tamano) {
+            productos = productos.subList(0, tamano);
+            ProductoResumen ultimo = productos.get(tamano - 1);
+            Object valor = filtro.orden() == FiltroProductos.Orden.RECIENTES ? ultimo.getFechaCreacion() : ultimo.getPrecio();
+            siguiente = codificarCursor(valor, ultimo.getId());
+        }
+
+        List<ProductoSummaryResponse> items = productos.stream()
+                .map(p -> new ProductoSummaryResponse(p.getId(), p.getNombre(), p.getPrecio(), p.getImagen(), p.getStock()))
+                .collect(Collectors.toList());
+        return new PaginaResponse<>(items, siguiente);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductoResponse obtenerPorId(Long id) {
-        Producto producto = productoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
-        return convertirAResponse(producto);
+        // Los productos inactivos no estan en el snapshot y se buscan en la base de datos
+        return catalogoCache.obtenerSnapshot().buscar(id)
+                .orElseGet(() -> productoRepository.findById(id)
+                        .map(this::convertirAResponse)
+                        .orElseThrow(() -> new RuntimeException("Producto no encontrado")));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductoResponse obtenerPorSku(String sku) {
+        // Se confirma el SKU del snapshot por si el indice y el snapshot se cruzaron con una actualizacion
+        return indiceSku.buscar(sku)
+                .flatMap(id -> catalogoCache.obtenerSnapshot().buscar(id))
+                .filter(producto -> producto.getSku().equals(sku.trim()))
+                .orElseGet(() -> productoRepository.findBySku(sku.trim())
+                        .map(this::convertirAResponse)
+                        .orElseThrow(() -> new RuntimeException("Producto no encontrado")));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductoResponse> obtenerRecientes(int limit) {
-        List<Producto> productos = productoRepository.findProductosRecientes();
-        return productos.stream()
-                .limit(limit)
-                .map(this::convertirAResponse)
+        int limite = Math.max(0, Math.min(limit, TAMANO_MAXIMO_PAGINA));
+        return productosRecientes.obtener(limite)
+                .orElseGet(() -> consultarRecientes(limite));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductoResponse> buscar(String consulta, int limit) {
+        int limite = Math.max(0, Math.min(limit, TAMANO_MAXIMO_PAGINA));
+        CatalogoSnapshot snapshot = catalogoCache.obtenerSnapshot();
+        return indiceBusqueda.buscar(consulta, limite)
+                .stream()
+                .map(snapshot::buscar)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductoSummaryResponse> autocompletar(String prefijo, int limit) {
+        int limite = Math.max(0, Math.min(limit, autocompletado.getSugerenciasPorNodo()));
+        CatalogoSnapshot snapshot = catalogoCache.obtenerSnapshot();
+        return autocompletado.sugerir(prefijo, limite)
+                .stream()
+                .map(snapshot::buscar)
+                .flatMap(Optional::stream)
+                .map(p -> new ProductoSummaryResponse(p.getId(), p.getNombre(), p.getPrecio(), p.getImagen(), p.getStock()))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public FacetasResponse obtenerFacetas(String categoria) {
+        FacetasCatalogo.Conteo conteo = facetasCatalogo.contar(categoria);
+        CatalogoSnapshot snapshot = catalogoCache.obtenerSnapshot();
+        List<ProductoResponse> productos = conteo.ids()
+                .stream()
+                .map(snapshot::buscar)
+                .flatMap(Optional::stream)
+                .sorted(CatalogoSnapshot.ORDEN_RECIENTES)
+                .collect(Collectors.toList());
+        return new FacetasResponse(categoria, productos, conteo.categorias(), conteo.rangosPrecio());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CambiosCatalogoResponse obtenerCambios(long desde, int limit) {
+        long inicio = Math.max(0, desde);
+        int limite = Math.max(1, Math.min(limit, TAMANO_MAXIMO_CAMBIOS));
+
+        List<UltimoCambio> cambios = cambioProductoRepository.findUltimosCambiosDesde(
+                inicio, PageRequest.of(0, limite + 1));
+        boolean hayMas = cambios.size() > limite;
+        if (hayMas) {
+            cambios = cambios.subList(0, limite);
+        }
+        long hasta = cambios.isEmpty() ? inicio : cambios.get(cambios.size() - 1).getSecuencia();
+
+        // Se entrega el estado actual de cada producto, no el historial de sus cambios
+        Map<Long, Producto> productos = productoRepository.findAllById(
+                        cambios.stream().map(UltimoCambio::getProductoId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Producto::getId, p -> p));
+        List<ProductoResponse> actualizados = new ArrayList<>();
+        List<Long> eliminados = new ArrayList<>();
+        for (UltimoCambio cambio : cambios) {
+            Producto producto = productos.get(cambio.getProductoId());
+            if (producto != null && Boolean.TRUE.equals(producto.getActivo())) {
+                actualizados.add(convertirAResponse(producto));
+            } else if (inicio > 0) {
+                // En la primera sincronizacion el cliente no tiene nada que borrar
+                eliminados.add(cambio.getProductoId());
+            }
+        }
+        return new CambiosCatalogoResponse(inicio, hasta, hayMas, actualizados, eliminados);
+    }
+
     @Override
     public ProductoResponse crear(ProductoRequest request) {
         Producto producto = new Producto();
@@ -58,7 +293,7 @@ public class ProductoServiceImpl implements ProductoService {
         producto.setActivo(request.getActivo() != null ? request.getActivo() : true);
 
         Producto guardado = productoRepository.save(producto);
-        return convertirAResponse(guardado);
+        return publicarCambio(ProductoEvento.Tipo.CREADO, guardado);
     }
 
     @Override
@@ -77,8 +312,44 @@ public class ProductoServiceImpl implements ProductoService {
             producto.setActivo(request.getActivo());
         }
 
-        Producto actualizado = productoRepository.save(producto);
-        return convertirAResponse(actualizado);
+        // El flush corre @PreUpdate e incrementa la version antes de armar el evento
+        Producto actualizado = productoRepository.saveAndFlush(producto);
+        return publicarCambio(ProductoEvento.Tipo.ACTUALIZADO, actualizado);
+    }
+
+    @Override
+    public ActualizacionMasivaResponse actualizarMasivo(List<ActualizacionMasivaRequest> cambios) {
+        List<ActualizacionMasivaRequest> porId = new ArrayList<>();
+        List<ActualizacionMasivaRequest> porSku = new ArrayList<>();
+        for (ActualizacionMasivaRequest cambio : cambios) {
+            if (cambio.getId() == null && (cambio.getSku() == null || cambio.getSku().isBlank())) {
+                throw new RuntimeException("Cada cambio debe indicar id o sku");
+            }
+            if (cambio.getPrecio() == null && cambio.getStock() == null) {
+                throw new RuntimeException("Cada cambio debe indicar precio o stock");
+            }
+            if ((cambio.getPrecio() != null && cambio.getPrecio().signum() < 0)
+                    || (cambio.getStock() != null && cambio.getStock() < 0)) {
+                throw new RuntimeException("El precio y el stock no pueden ser negativos");
+            }
+            (cambio.getId() != null ? porId : porSku).add(cambio);
+        }
+
+        // Todo ocurre en la transaccion del metodo: si un lote falla no queda nada a medias
+        List<String> noEncontrados = new ArrayList<>();
+        int actualizados = contarActualizados(porId, productoJdbcRepository.actualizarPrecioYStockPorId(porId),
+                cambio -> String.valueOf(cambio.getId()), noEncontrados);
+        actualizados += contarActualizados(porSku, productoJdbcRepository.actualizarPrecioYStockPorSku(porSku),
+                ActualizacionMasivaRequest::getSku, noEncontrados);
+
+        if (actualizados > 0) {
+            productoJdbcRepository.registrarCambiosPorId(
+                    porId.stream().map(ActualizacionMasivaRequest::getId).collect(Collectors.toList()));
+            productoJdbcRepository.registrarCambiosPorSku(
+                    porSku.stream().map(ActualizacionMasivaRequest::getSku).collect(Collectors.toList()));
+            eventPublisher.publishEvent(new CatalogoModificadoEvento(actualizados));
+        }
+        return new ActualizacionMasivaResponse(cambios.size(), actualizados, noEncontrados);
     }
 
     @Override
@@ -88,12 +359,74 @@ public class ProductoServiceImpl implements ProductoService {
 
         // Eliminación lógica (recomendado)
         producto.setActivo(false);
-        productoRepository.save(producto);
+        Producto eliminado = productoRepository.saveAndFlush(producto);
+        publicarCambio(ProductoEvento.Tipo.ELIMINADO, eliminado);
 
         // O eliminación física (descomentar si prefieres):
         // productoRepository.delete(producto);
     }
 
+    // Consulta acotada en la base de datos; aprovecha para volver a llenar el top en memoria
+    private List<ProductoResponse> consultarRecientes(int limite) {
+        long generacion = productosRecientes.generacionActual();
+        int cantidad = Math.max(limite, productosRecientes.getCapacidad());
+        List<ProductoResponse> recientes = productoRepository.findProductosRecientes(PageRequest.of(0, cantidad))
+                .stream()
+                .map(this::convertirAResponse)
+                .collect(Collectors.toList());
+        productosRecientes.recargar(recientes, recientes.size() < cantidad, generacion);
+        return recientes.subList(0, Math.min(limite, recientes.size()));
+    }
+
+    // Un conteo negativo (SUCCESS_NO_INFO) significa que el driver no informa filas: se cuenta como aplicado
+    private int contarActualizados(List<ActualizacionMasivaRequest> cambios, int[] filas,
+                                   Function<ActualizacionMasivaRequest, String> clave, List<String> noEncontrados) {
+        int actualizados = 0;
+        for (int i = 0; i < cambios.size(); i++) {
+            if (i < filas.length && filas[i] == 0) {
+                noEncontrados.add(clave.apply(cambios.get(i)));
+            } else {
+                actualizados++;
+            }
+        }
+        return actualizados;
+    }
+
+    // El cambio queda registrado en la misma transaccion; el evento llega a los listeners del
+    // catalogo recien despues del commit
+    private ProductoResponse publicarCambio(ProductoEvento.Tipo tipo, Producto producto) {
+        cambioProductoRepository.save(new CambioProducto(producto.getId()));
+        ProductoResponse response = convertirAResponse(producto);
+        eventPublisher.publishEvent(new ProductoEvento(tipo, response));
+        return response;
+    }
+
+    // El cursor guarda la clave de orden (fechaCreacion o precio) y el id del ultimo elemento
+    private String codificarCursor(Object valor, Long id) {
+        String posicion = valor + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(posicion.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Posicion decodificarCursor(String cursor, FiltroProductos.Orden orden) {
+        try {
+            String posicion = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = posicion.split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            Object valor = orden == FiltroProductos.Orden.RECIENTES
+                    ? LocalDateTime.parse(partes[0])
+                    : new BigDecimal(partes[0]);
+            return new Posicion(valor, Long.valueOf(partes[1]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
+    }
+
+    private record Posicion(Object valor, Long id) {
+    }
+
     private ProductoResponse convertirAResponse(Producto producto) {
         ProductoResponse response = new ProductoResponse();
         response.setId(producto.getId());
@@ -107,6 +440,7 @@ public class ProductoServiceImpl implements ProductoService {
         response.setActivo(producto.getActivo());
         response.setFechaCreacion(producto.getFechaCreacion());
         response.setFechaActualizacion(producto.getFechaActualizacion());
+        response.setVersion(producto.getVersion());
         return response;
     }
 
@@ -7,7 +7,9 @@ import com.seedstoroots.app.entity.Rol;
 import com.seedstoroots.app.entity.Usuario;
 import com.seedstoroots.app.repository.UsuarioRepository;
 import com.seedstoroots.app.service.UsuarioService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.seedstoroots.app.usuario.UsuariosRegistrados;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,19 +21,24 @@ import java.util.stream.Collectors;
 public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final UsuariosRegistrados usuariosRegistrados;
 
-    public UsuarioServiceImpl(UsuarioRepository usuarioRepository) {
+    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder,
+                              UsuariosRegistrados usuariosRegistrados) {
         this.usuarioRepository = usuarioRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordEncoder = passwordEncoder;
+        this.usuariosRegistrados = usuariosRegistrados;
     }
 
     @Override
     public UsuarioResponse crear(UsuarioCreateRequest request) {
-        if (usuarioRepository.existsByEmail(request.getEmail())) {
+        if (usuariosRegistrados.podriaExistirEmail(request.getEmail())
+                && usuarioRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("El email ya está registrado");
         }
-        if (usuarioRepository.existsByRun(request.getRun())) {
+        if (usuariosRegistrados.podriaExistirRun(request.getRun())
+                && usuarioRepository.existsByRun(request.getRun())) {
             throw new RuntimeException("El RUN ya está registrado");
         }
         if (request.getPassword() == null || request.getPassword().isBlank()) {
@@ -53,7 +60,13 @@ public class UsuarioServiceImpl implements UsuarioService {
         usuario.setRol(obtenerRol(request.getRol()));
         usuario.setActivo(request.getActivo() != null ? request.getActivo() : true);
 
-        Usuario guardado = usuarioRepository.save(usuario);
+        Usuario guardado;
+        try {
+            guardado = usuarioRepository.saveAndFlush(usuario);
+        } catch (DataIntegrityViolationException e) {
+            throw UsuariosRegistrados.errorDeDuplicado(e);
+        }
+        usuariosRegistrados.agregar(guardado.getEmail(), guardado.getRun());
         return convertirAResponse(guardado);
     }
 
@@ -0,0 +1,62 @@
+package com.seedstoroots.app.usuario;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sobre cadenas: podriaContener() nunca da un falso negativo y da falsos
+ * positivos con la probabilidad pedida mientras no se supere la capacidad. Los bits se
+ * marcan con CAS, asi agregar y consultar no necesitan locks.
+ */
+final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long cantidadBits;
+    private final int cantidadHashes;
+
+    FiltroBloom(int capacidad, double probabilidadFalsoPositivo) {
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-Math.max(capacidad, 1) * Math.log(probabilidadFalsoPositivo) / (ln2 * ln2));
+        this.bits = new AtomicLongArray((int) ((m + 63) / 64));
+        this.cantidadBits = bits.length() * 64L;
+        this.cantidadHashes = Math.max(1, (int) Math.round((double) cantidadBits / Math.max(capacidad, 1) * ln2));
+    }
+
+    void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, cantidadBits);
+            int posicion = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            bits.getAndUpdate(posicion, palabra -> palabra | mascara);
+        }
+    }
+
+    boolean podriaContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, cantidadBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits seguido de la mezcla final de SplitMix64; los dos hashes salen de este
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mezclar(h);
+    }
+
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,62 @@
+package com.seedstoroots.app.usuario;
+
+import com.seedstoroots.app.repository.UsuarioJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffer de escritura diferida para Usuario.ultimoLogin. El login solo anota la fecha en
+ * memoria; varios logins del mismo usuario se combinan en el mas reciente y se escriben
+ * periodicamente en un solo batch. Al apagar la aplicacion se vacia lo pendiente. La fecha
+ * que ven las consultas de usuarios puede atrasarse hasta un intervalo.
+ */
+@Component
+public class RegistroUltimoLogin {
+
+    private final UsuarioJdbcRepository usuarioJdbcRepository;
+    private final Map<Long, LocalDateTime> pendientes = new ConcurrentHashMap<>();
+
+    public RegistroUltimoLogin(UsuarioJdbcRepository usuarioJdbcRepository) {
+        this.usuarioJdbcRepository = usuarioJdbcRepository;
+    }
+
+    public void registrar(Long usuarioId, LocalDateTime fecha) {
+        pendientes.merge(usuarioId, fecha, (actual, nueva) -> nueva.isAfter(actual) ? nueva : actual);
+    }
+
+    public int pendientes() {
+        return pendientes.size();
+    }
+
+    @Scheduled(fixedDelayString = "${usuarios.ultimo-login.intervalo-ms:10000}")
+    public synchronized void vaciar() {
+        Map<Long, LocalDateTime> lote = new HashMap<>();
+        // remove(clave, valor) solo saca la fecha leida; un login que llega mientras tanto queda para la proxima vuelta
+        pendientes.forEach((usuarioId, fecha) -> {
+            if (pendientes.remove(usuarioId, fecha)) {
+                lote.put(usuarioId, fecha);
+            }
+        });
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            usuarioJdbcRepository.actualizarUltimosLogins(lote);
+        } catch (RuntimeException e) {
+            // Se devuelven al buffer para el siguiente intento; el scheduler registra el error
+            lote.forEach(this::registrar);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void alApagar() {
+        vaciar();
+    }
+}
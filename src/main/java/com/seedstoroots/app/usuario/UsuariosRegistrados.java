@@ -0,0 +1,79 @@
+package com.seedstoroots.app.usuario;
+
+import com.seedstoroots.app.repository.ClavesUsuario;
+import com.seedstoroots.app.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom con los emails y RUN ya registrados. Si el filtro dice que un valor no
+ * existe, el registro va directo al INSERT sin consultar antes; si dice que podria existir,
+ * se confirma con la base de datos. La unicidad real la garantizan las restricciones unique
+ * de la tabla: un falso negativo (por ejemplo un email cambiado por otra via) solo termina
+ * en una violacion de restriccion, que se traduce al mismo error.
+ */
+@Component
+public class UsuariosRegistrados {
+
+    private final UsuarioRepository usuarioRepository;
+    private final FiltroBloom filtro;
+    // Hasta cargar el filtro todo valor "podria existir" y se consulta la base de datos
+    private volatile boolean cargado = false;
+
+    public UsuariosRegistrados(UsuarioRepository usuarioRepository,
+                               @Value("${usuarios.filtro-registrados.capacidad:100000}") int capacidad,
+                               @Value("${usuarios.filtro-registrados.falsos-positivos:0.01}") double falsosPositivos) {
+        this.usuarioRepository = usuarioRepository;
+        // Email y RUN comparten el filtro, por eso se reserva el doble de capacidad
+        this.filtro = new FiltroBloom(capacidad * 2, falsosPositivos);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargar() {
+        try (Stream<ClavesUsuario> claves = usuarioRepository.streamClavesUsuarios()) {
+            claves.forEach(clave -> agregar(clave.getEmail(), clave.getRun()));
+        }
+        cargado = true;
+    }
+
+    public boolean podriaExistirEmail(String email) {
+        return !cargado || email == null || filtro.podriaContener("email:" + email);
+    }
+
+    public boolean podriaExistirRun(String run) {
+        return !cargado || run == null || filtro.podriaContener("run:" + run);
+    }
+
+    public void agregar(String email, String run) {
+        if (email != null) {
+            filtro.agregar("email:" + email);
+        }
+        if (run != null) {
+            filtro.agregar("run:" + run);
+        }
+    }
+
+    /**
+     * Traduce la violacion de la restriccion unique de email o RUN al mismo error que da la
+     * validacion previa. PostgreSQL y H2 nombran la columna en el mensaje: "Key (email)=..."
+     * y "USUARIOS(EMAIL ...)".
+     */
+    public static RuntimeException errorDeDuplicado(DataIntegrityViolationException e) {
+        String mensaje = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (mensaje.contains("(email")) {
+            return new RuntimeException("El email ya está registrado");
+        }
+        if (mensaje.contains("(run")) {
+            return new RuntimeException("El RUN ya está registrado");
+        }
+        return new RuntimeException("No se pudo registrar el usuario", e);
+    }
+}
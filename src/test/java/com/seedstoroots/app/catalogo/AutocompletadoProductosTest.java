@@ -0,0 +1,76 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutocompletadoProductosTest {
+
+    private AutocompletadoProductos autocompletado;
+
+    @BeforeEach
+    void setUp() {
+        autocompletado = new AutocompletadoProductos(2);
+        autocompletado.alRecargarCatalogo(new CatalogoReconstruidoEvento(List.of(
+                producto(1L, "Semillas de Tomate Cherry", 1, true),
+                producto(2L, "Semillas de Lechuga", 2, true),
+                producto(3L, "Tierra de Hojas", 3, true),
+                producto(4L, "Sustrato para Almácigos", 4, true)
+        )));
+    }
+
+    @Test
+    void sugerir_DeberiaCoincidirSinTildesYDesdeCualquierPalabra() {
+        // Act & Assert
+        assertEquals(List.of(1L), autocompletado.sugerir("TOM", 10));
+        assertEquals(List.of(4L), autocompletado.sugerir("almacig", 10));
+        assertEquals(List.of(2L, 1L), autocompletado.sugerir("semillas de", 10));
+        assertTrue(autocompletado.sugerir("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void sugerir_DeberiaDevolverLosMasRecientesHastaElLimiteDelNodo() {
+        // Act
+        List<Long> sugerencias = autocompletado.sugerir("s", 10);
+
+        // Assert
+        assertEquals(List.of(4L, 2L), sugerencias);
+        assertEquals(List.of(4L), autocompletado.sugerir("s", 1));
+    }
+
+    @Test
+    void alCambiarProducto_Desactivado_DeberiaRecalcularLosMejores() {
+        // Act
+        autocompletado.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ELIMINADO,
+                producto(4L, "Sustrato para Almácigos", 4, false)));
+
+        // Assert
+        assertEquals(List.of(2L, 1L), autocompletado.sugerir("s", 10));
+        assertTrue(autocompletado.sugerir("sus", 10).isEmpty());
+    }
+
+    @Test
+    void alCambiarProducto_ConNombreNuevo_DeberiaReemplazarLasClaves() {
+        // Act
+        autocompletado.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ACTUALIZADO,
+                producto(3L, "Compost Orgánico", 3, true)));
+
+        // Assert
+        assertTrue(autocompletado.sugerir("tierra", 10).isEmpty());
+        assertEquals(List.of(3L), autocompletado.sugerir("organ", 10));
+    }
+
+    private ProductoResponse producto(Long id, String nombre, int dia, boolean activo) {
+        ProductoResponse producto = new ProductoResponse();
+        producto.setId(id);
+        producto.setNombre(nombre);
+        producto.setActivo(activo);
+        producto.setFechaCreacion(LocalDateTime.of(2025, 1, dia, 10, 0));
+        return producto;
+    }
+}
@@ -0,0 +1,172 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoCacheTest {
+
+    private CatalogoCache catalogoCache;
+    private List<Object> publicados;
+
+    @BeforeEach
+    void setUp() {
+        publicados = new ArrayList<>();
+        catalogoCache = new CatalogoCache(publicados::add);
+        catalogoCache.alRecargarCatalogo(new CatalogoRecargadoEvento(List.of(
+                producto(1L, true, LocalDateTime.of(2025, 1, 1, 10, 0)),
+                producto(2L, true, LocalDateTime.of(2025, 1, 2, 10, 0))
+        ), 0));
+    }
+
+    @Test
+    void alRecargarCatalogo_DeberiaOrdenarDelMasRecienteAlMasAntiguo() {
+        // Act
+        CatalogoSnapshot snapshot = catalogoCache.obtenerSnapshot();
+
+        // Assert
+        assertEquals(1L, snapshot.getVersion());
+        assertEquals(2L, snapshot.getProductos().get(0).getId());
+    }
+
+    @Test
+    void alCambiarProducto_DeberiaPublicarSnapshotNuevoSinModificarElAnterior() {
+        // Arrange
+        CatalogoSnapshot anterior = catalogoCache.obtenerSnapshot();
+
+        // Act
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.CREADO,
+                producto(3L, true, LocalDateTime.of(2025, 1, 3, 10, 0))));
+
+        // Assert
+        CatalogoSnapshot nuevo = catalogoCache.obtenerSnapshot();
+        assertEquals(2, anterior.size());
+        assertEquals(3, nuevo.size());
+        assertEquals(anterior.getVersion() + 1, nuevo.getVersion());
+    }
+
+    @Test
+    void alCambiarProducto_Desactivado_DeberiaQuitarloDelSnapshot() {
+        // Act
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.ELIMINADO,
+                producto(1L, false, LocalDateTime.of(2025, 1, 1, 10, 0))));
+
+        // Assert
+        assertTrue(catalogoCache.obtenerSnapshot().buscar(1L).isEmpty());
+        assertEquals(1, catalogoCache.obtenerSnapshot().size());
+    }
+
+    @Test
+    void alCambiarProducto_ConCambioAntiguo_NoDeberiaPisarElEstadoVigente() {
+        // Arrange
+        ProductoResponse vigente = producto(1L, true, LocalDateTime.of(2025, 1, 1, 10, 0));
+        vigente.setVersion(3L);
+        vigente.setNombre("Vigente");
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.ACTUALIZADO, vigente));
+
+        ProductoResponse atrasado = producto(1L, true, LocalDateTime.of(2025, 1, 1, 10, 0));
+        atrasado.setVersion(2L);
+        atrasado.setNombre("Atrasado");
+
+        // Act
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.ACTUALIZADO, atrasado));
+
+        // Assert
+        assertEquals("Vigente", catalogoCache.obtenerSnapshot().buscar(1L).orElseThrow().getNombre());
+    }
+
+    @Test
+    void alCambiarProducto_ConCambioAntiguoDeUnDesactivado_NoDeberiaReactivarloNiReenviarlo() {
+        // Arrange
+        publicados.clear();
+        ProductoResponse desactivado = producto(1L, false, LocalDateTime.of(2025, 1, 1, 10, 0));
+        desactivado.setVersion(3L);
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.ELIMINADO, desactivado));
+        ProductoResponse atrasado = producto(1L, true, LocalDateTime.of(2025, 1, 1, 10, 0));
+        atrasado.setVersion(2L);
+
+        // Act
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.ACTUALIZADO, atrasado));
+
+        // Assert
+        assertTrue(catalogoCache.obtenerSnapshot().buscar(1L).isEmpty());
+        assertEquals(List.of(new ProductoAplicadoEvento(ProductoEvento.Tipo.ELIMINADO, desactivado)), publicados);
+    }
+
+    @Test
+    void alCambiarProducto_ConSoloCambioDePrecio_DeberiaCambiarLaHuella() {
+        // Arrange
+        String huellaAnterior = catalogoCache.obtenerSnapshot().getHuella();
+        ProductoResponse cambiado = producto(1L, true, LocalDateTime.of(2025, 1, 1, 10, 0));
+        cambiado.setPrecio(BigDecimal.valueOf(99));
+
+        // Act
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.ACTUALIZADO, cambiado));
+
+        // Assert
+        assertNotEquals(huellaAnterior, catalogoCache.obtenerSnapshot().getHuella());
+    }
+
+    @Test
+    void alRecargarCatalogo_ConLecturaAnteriorAUnCambio_DeberiaReaplicarElCambio() {
+        // Arrange: la recarga lee la base de datos y mientras tanto se aplica un cambio individual
+        long versionLeida = catalogoCache.obtenerSnapshot().getVersion();
+        ProductoResponse leido = producto(1L, true, LocalDateTime.of(2025, 1, 1, 10, 0));
+        ProductoResponse actualizado = producto(1L, true, LocalDateTime.of(2025, 1, 1, 10, 0));
+        actualizado.setNombre("Actualizado");
+        actualizado.setVersion(1L);
+        ProductoResponse creado = producto(3L, true, LocalDateTime.of(2025, 1, 3, 10, 0));
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.ACTUALIZADO, actualizado));
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.CREADO, creado));
+
+        // Act
+        catalogoCache.alRecargarCatalogo(new CatalogoRecargadoEvento(List.of(
+                leido,
+                producto(2L, true, LocalDateTime.of(2025, 1, 2, 10, 0))
+        ), versionLeida));
+
+        // Assert
+        CatalogoSnapshot snapshot = catalogoCache.obtenerSnapshot();
+        assertEquals("Actualizado", snapshot.buscar(1L).orElseThrow().getNombre());
+        assertTrue(snapshot.buscar(3L).isPresent());
+        Object ultimo = publicados.get(publicados.size() - 1);
+        assertEquals(new CatalogoReconstruidoEvento(snapshot.getProductos()), ultimo);
+    }
+
+    @Test
+    void alRecargarCatalogo_ConLecturaPosteriorAUnCambio_DeberiaQuedarseConLoLeido() {
+        // Arrange
+        ProductoResponse actualizado = producto(1L, true, LocalDateTime.of(2025, 1, 1, 10, 0));
+        actualizado.setVersion(1L);
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.ACTUALIZADO, actualizado));
+        long versionLeida = catalogoCache.obtenerSnapshot().getVersion();
+        ProductoResponse masivo = producto(1L, true, LocalDateTime.of(2025, 1, 1, 10, 0));
+        masivo.setNombre("Masivo");
+        masivo.setVersion(2L);
+
+        // Act
+        catalogoCache.alRecargarCatalogo(new CatalogoRecargadoEvento(List.of(masivo), versionLeida));
+
+        // Assert
+        assertEquals("Masivo", catalogoCache.obtenerSnapshot().buscar(1L).orElseThrow().getNombre());
+        assertEquals(1, catalogoCache.obtenerSnapshot().size());
+    }
+
+    private ProductoResponse producto(Long id, boolean activo, LocalDateTime fechaCreacion) {
+        ProductoResponse producto = new ProductoResponse();
+        producto.setId(id);
+        producto.setNombre("Producto " + id);
+        producto.setActivo(activo);
+        producto.setFechaCreacion(fechaCreacion);
+        producto.setFechaActualizacion(fechaCreacion);
+        producto.setVersion(0L);
+        return producto;
+    }
+}
@@ -0,0 +1,91 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.EventoCatalogoResponse;
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifusionCatalogoTest {
+
+    @Test
+    void encolar_MismoProducto_DeberiaCombinarEnElUltimoEvento() {
+        // Arrange
+        DifusionCatalogo.Suscripcion suscripcion = new DifusionCatalogo.Suscripcion(new SseEmitter(), 10);
+
+        // Act
+        suscripcion.encolar("producto:1", evento("producto", 1L, 5));
+        suscripcion.encolar("producto:2", evento("producto", 2L, 7));
+        suscripcion.encolar("producto:1", evento("producto", 1L, 3));
+        List<EventoCatalogoResponse> pendientes = suscripcion.tomarPendientes();
+
+        // Assert
+        assertEquals(2, pendientes.size());
+        assertEquals(2L, pendientes.get(0).getId());
+        assertEquals(1L, pendientes.get(1).getId());
+        assertEquals(3, pendientes.get(1).getStock());
+        assertFalse(suscripcion.tienePendientes());
+    }
+
+    @Test
+    void encolar_BufferLleno_DeberiaPedirRecarga() {
+        // Arrange
+        DifusionCatalogo.Suscripcion suscripcion = new DifusionCatalogo.Suscripcion(new SseEmitter(), 2);
+
+        // Act
+        suscripcion.encolar("producto:1", evento("producto", 1L, 5));
+        suscripcion.encolar("producto:2", evento("producto", 2L, 5));
+        suscripcion.encolar("producto:3", evento("producto", 3L, 5));
+        suscripcion.encolar("producto:4", evento("producto", 4L, 5));
+        List<EventoCatalogoResponse> pendientes = suscripcion.tomarPendientes();
+
+        // Assert
+        assertEquals(1, pendientes.size());
+        assertEquals(DifusionCatalogo.RECARGA, pendientes.get(0).getTipo());
+    }
+
+    @Test
+    void suscribir_DeberiaContarConexionesYRecibirCambios() {
+        // Arrange
+        DifusionCatalogo difusion = new DifusionCatalogo(new SyncTaskExecutor(), 16, 60000);
+        difusion.suscribir();
+        ProductoResponse producto = new ProductoResponse();
+        producto.setId(1L);
+        producto.setPrecio(BigDecimal.valueOf(2990));
+        producto.setStock(4);
+        producto.setActivo(true);
+
+        // Act
+        difusion.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ACTUALIZADO, producto));
+        difusion.alVerificarStock(new StockVerificadoEvento(1L, 4, 2));
+
+        // Assert
+        assertEquals(1, difusion.conexionesAbiertas());
+    }
+
+    @Test
+    void cerrar_DeberiaDetenerElPoolYDescartarLosEnviosPosteriores() {
+        // Arrange
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        DifusionCatalogo difusion = new DifusionCatalogo(pool, 16, 60000);
+        difusion.suscribir();
+
+        // Act
+        difusion.cerrar();
+
+        // Assert
+        assertTrue(pool.isShutdown());
+        assertDoesNotThrow(difusion::mantenerConexiones);
+    }
+
+    private EventoCatalogoResponse evento(String tipo, Long id, Integer stock) {
+        return new EventoCatalogoResponse(tipo, id, null, stock, null);
+    }
+}
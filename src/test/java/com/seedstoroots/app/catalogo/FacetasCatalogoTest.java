@@ -0,0 +1,75 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import com.seedstoroots.app.dto.RangoPrecioResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetasCatalogoTest {
+
+    private FacetasCatalogo facetasCatalogo;
+
+    @BeforeEach
+    void setUp() {
+        facetasCatalogo = new FacetasCatalogo(new BigDecimal[]{BigDecimal.valueOf(10000), BigDecimal.valueOf(5000)});
+        facetasCatalogo.alRecargarCatalogo(new CatalogoReconstruidoEvento(List.of(
+                producto(1L, "Semillas", 2990),
+                producto(2L, "Semillas", 7500),
+                producto(3L, "Maceteros", 12990),
+                producto(4L, null, 5000)
+        )));
+    }
+
+    @Test
+    void contar_SinCategoria_DeberiaRetornarConteosGlobales() {
+        // Act
+        FacetasCatalogo.Conteo conteo = facetasCatalogo.contar(null);
+
+        // Assert
+        assertEquals(2L, conteo.categorias().get("Semillas"));
+        assertEquals(1L, conteo.categorias().get(FacetasCatalogo.SIN_CATEGORIA));
+        assertEquals(List.of(1L, 2L, 1L), conteo.rangosPrecio().stream().map(RangoPrecioResponse::getCantidad).toList());
+        assertNull(conteo.rangosPrecio().get(2).getHasta());
+        assertTrue(conteo.ids().isEmpty());
+    }
+
+    @Test
+    void contar_ConCategoria_DeberiaRetornarSusRangosEIds() {
+        // Act
+        FacetasCatalogo.Conteo conteo = facetasCatalogo.contar("Semillas");
+
+        // Assert
+        assertEquals(List.of(1L, 1L, 0L), conteo.rangosPrecio().stream().map(RangoPrecioResponse::getCantidad).toList());
+        assertTrue(conteo.ids().containsAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void alCambiarProducto_DeberiaMoverElConteoDeCategoriaYRango() {
+        // Act
+        facetasCatalogo.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ACTUALIZADO,
+                producto(2L, "Maceteros", 15000)));
+        ProductoResponse eliminado = producto(1L, "Semillas", 2990);
+        eliminado.setActivo(false);
+        facetasCatalogo.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ELIMINADO, eliminado));
+
+        // Assert
+        FacetasCatalogo.Conteo conteo = facetasCatalogo.contar("Maceteros");
+        assertNull(conteo.categorias().get("Semillas"));
+        assertEquals(2L, conteo.categorias().get("Maceteros"));
+        assertEquals(2L, conteo.rangosPrecio().get(2).getCantidad());
+    }
+
+    private ProductoResponse producto(Long id, String categoria, int precio) {
+        ProductoResponse producto = new ProductoResponse();
+        producto.setId(id);
+        producto.setCategoria(categoria);
+        producto.setPrecio(BigDecimal.valueOf(precio));
+        producto.setActivo(true);
+        return producto;
+    }
+}
@@ -0,0 +1,74 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceBusquedaTest {
+
+    private IndiceBusqueda indiceBusqueda;
+
+    @BeforeEach
+    void setUp() {
+        indiceBusqueda = new IndiceBusqueda();
+        indiceBusqueda.alRecargarCatalogo(new CatalogoReconstruidoEvento(List.of(
+                producto(1L, "Semillas de Tomate", "Ideal para huerto y jardín", "Semillas"),
+                producto(2L, "Maceta de greda", "Para plantar tomates en el jardín", "Maceteros"),
+                producto(3L, "Tierra de hoja", "Sustrato para semillas de tomate", "Sustratos")
+        )));
+    }
+
+    @Test
+    void buscar_DeberiaIgnorarTildesYMayusculas() {
+        // Act
+        List<Long> resultado = indiceBusqueda.buscar("JARDIN", 10);
+
+        // Assert
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.containsAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void buscar_DeberiaPriorizarCoincidenciasEnElNombre() {
+        // Act
+        List<Long> resultado = indiceBusqueda.buscar("semillas tomate", 10);
+
+        // Assert
+        assertEquals(List.of(1L, 3L), resultado);
+    }
+
+    @Test
+    void alCambiarProducto_DeberiaActualizarElIndiceIncrementalmente() {
+        // Act
+        indiceBusqueda.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ACTUALIZADO,
+                producto(2L, "Maceta de barro", "Maceta artesanal", "Maceteros")));
+        ProductoResponse eliminado = producto(1L, "Semillas de Tomate", null, "Semillas");
+        eliminado.setActivo(false);
+        indiceBusqueda.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ELIMINADO, eliminado));
+
+        // Assert
+        assertTrue(indiceBusqueda.buscar("greda", 10).isEmpty());
+        assertEquals(List.of(2L), indiceBusqueda.buscar("barro", 10));
+        assertEquals(List.of(3L), indiceBusqueda.buscar("tomate", 10));
+    }
+
+    @Test
+    void buscar_SoloConPalabrasVacias_DeberiaRetornarVacio() {
+        // Act & Assert
+        assertTrue(indiceBusqueda.buscar("de la", 10).isEmpty());
+    }
+
+    private ProductoResponse producto(Long id, String nombre, String descripcion, String categoria) {
+        ProductoResponse producto = new ProductoResponse();
+        producto.setId(id);
+        producto.setNombre(nombre);
+        producto.setDescripcion(descripcion);
+        producto.setCategoria(categoria);
+        producto.setActivo(true);
+        return producto;
+    }
+}
@@ -0,0 +1,63 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceSkuTest {
+
+    private IndiceSku indiceSku;
+
+    @BeforeEach
+    void setUp() {
+        indiceSku = new IndiceSku();
+        indiceSku.alRecargarCatalogo(new CatalogoReconstruidoEvento(List.of(
+                producto(1L, "SEM-TOM-001", true),
+                producto(2L, "SEM-LEC-001", true)
+        )));
+    }
+
+    @Test
+    void buscar_DeberiaResolverElSkuAlId() {
+        // Act & Assert
+        assertEquals(Optional.of(1L), indiceSku.buscar("SEM-TOM-001"));
+        assertEquals(Optional.of(2L), indiceSku.buscar(" SEM-LEC-001 "));
+        assertTrue(indiceSku.buscar("NO-EXISTE").isEmpty());
+    }
+
+    @Test
+    void alCambiarProducto_ConSkuNuevo_DeberiaQuitarElSkuAnterior() {
+        // Act
+        indiceSku.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ACTUALIZADO,
+                producto(1L, "SEM-TOM-002", true)));
+
+        // Assert
+        assertTrue(indiceSku.buscar("SEM-TOM-001").isEmpty());
+        assertEquals(Optional.of(1L), indiceSku.buscar("SEM-TOM-002"));
+        assertEquals(2, indiceSku.size());
+    }
+
+    @Test
+    void alCambiarProducto_Desactivado_DeberiaQuitarloDelIndice() {
+        // Act
+        indiceSku.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ELIMINADO,
+                producto(2L, "SEM-LEC-001", false)));
+
+        // Assert
+        assertTrue(indiceSku.buscar("SEM-LEC-001").isEmpty());
+        assertEquals(1, indiceSku.size());
+    }
+
+    private ProductoResponse producto(Long id, String sku, boolean activo) {
+        ProductoResponse producto = new ProductoResponse();
+        producto.setId(id);
+        producto.setSku(sku);
+        producto.setActivo(activo);
+        return producto;
+    }
+}
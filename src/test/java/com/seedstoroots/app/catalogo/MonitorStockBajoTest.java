@@ -0,0 +1,90 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoBajoStockResponse;
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MonitorStockBajoTest {
+
+    private ApplicationEventPublisher eventPublisher;
+    private MonitorStockBajo monitor;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        monitor = new MonitorStockBajo(10, new String[]{"Herramientas:3"}, eventPublisher);
+        monitor.alRecargarCatalogo(new CatalogoReconstruidoEvento(List.of(
+                producto(1L, "Semillas", 8, true),
+                producto(2L, "Semillas", 2, true),
+                producto(3L, "Semillas", 50, true),
+                producto(4L, "Herramientas", 5, true)
+        )));
+    }
+
+    @Test
+    void listar_DeberiaOrdenarPorStockYUsarUmbralDeCategoria() {
+        // Act
+        List<ProductoBajoStockResponse> productos = monitor.listar();
+
+        // Assert
+        assertEquals(2, monitor.contar());
+        assertEquals(List.of(2L, 1L), productos.stream().map(ProductoBajoStockResponse::getId).toList());
+        assertEquals(10, productos.get(0).getUmbral());
+        assertEquals(3, monitor.umbralDe("herramientas"));
+    }
+
+    @Test
+    void alCambiarProducto_CruzaUmbral_DeberiaPublicarEvento() {
+        // Act
+        monitor.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ACTUALIZADO,
+                producto(3L, "Semillas", 4, true)));
+        monitor.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ACTUALIZADO,
+                producto(2L, "Semillas", 30, true)));
+
+        // Assert
+        assertEquals(List.of(3L, 1L), monitor.listar().stream().map(ProductoBajoStockResponse::getId).toList());
+        verify(eventPublisher).publishEvent(new StockBajoEvento(3L, 4, 10, true));
+        verify(eventPublisher).publishEvent(new StockBajoEvento(2L, 30, 10, false));
+    }
+
+    @Test
+    void alCambiarProducto_SinCruce_NoDeberiaPublicarEvento() {
+        // Act
+        monitor.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ACTUALIZADO,
+                producto(1L, "Semillas", 1, true)));
+
+        // Assert
+        assertEquals(1, monitor.listar().get(0).getStock());
+        assertEquals(2, monitor.contar());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void alCambiarProducto_Desactivado_DeberiaSalirDeLaLista() {
+        // Act
+        monitor.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ELIMINADO,
+                producto(2L, "Semillas", 2, false)));
+
+        // Assert
+        assertEquals(1, monitor.contar());
+        verify(eventPublisher).publishEvent(new StockBajoEvento(2L, 2, 10, false));
+    }
+
+    private ProductoResponse producto(Long id, String categoria, int stock, boolean activo) {
+        ProductoResponse producto = new ProductoResponse();
+        producto.setId(id);
+        producto.setNombre("Producto " + id);
+        producto.setCategoria(categoria);
+        producto.setStock(stock);
+        producto.setActivo(activo);
+        return producto;
+    }
+}
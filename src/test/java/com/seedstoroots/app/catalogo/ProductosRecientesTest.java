@@ -0,0 +1,71 @@
+package com.seedstoroots.app.catalogo;
+
+import com.seedstoroots.app.dto.ProductoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductosRecientesTest {
+
+    private ProductosRecientes productosRecientes;
+
+    @BeforeEach
+    void setUp() {
+        productosRecientes = new ProductosRecientes(3);
+        productosRecientes.recargar(List.of(producto(3L, true), producto(2L, true), producto(1L, true)),
+                false, productosRecientes.generacionActual());
+    }
+
+    @Test
+    void obtener_ConLimiteMayorAlTopIncompleto_DeberiaPedirConsulta() {
+        // Act & Assert
+        assertEquals(2, productosRecientes.obtener(2).orElseThrow().size());
+        assertTrue(productosRecientes.obtener(4).isEmpty());
+    }
+
+    @Test
+    void alCambiarProducto_Creado_DeberiaEntrarPrimeroYDesplazarAlMasAntiguo() {
+        // Act
+        productosRecientes.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.CREADO, producto(4L, true)));
+
+        // Assert
+        List<ProductoResponse> top = productosRecientes.obtener(3).orElseThrow();
+        assertEquals(List.of(4L, 3L, 2L), top.stream().map(ProductoResponse::getId).toList());
+    }
+
+    @Test
+    void alCambiarProducto_Desactivado_DeberiaSalirDelTopSinInventarReemplazo() {
+        // Act
+        productosRecientes.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.ELIMINADO, producto(2L, false)));
+
+        // Assert
+        assertEquals(List.of(3L, 1L), productosRecientes.obtener(2).orElseThrow()
+                .stream().map(ProductoResponse::getId).toList());
+        assertTrue(productosRecientes.obtener(3).isEmpty());
+    }
+
+    @Test
+    void recargar_ConGeneracionVieja_DeberiaDescartarse() {
+        // Arrange
+        long generacion = productosRecientes.generacionActual();
+        productosRecientes.alCambiarProducto(new ProductoAplicadoEvento(ProductoEvento.Tipo.CREADO, producto(4L, true)));
+
+        // Act
+        productosRecientes.recargar(List.of(producto(3L, true)), true, generacion);
+
+        // Assert
+        assertEquals(4L, productosRecientes.obtener(1).orElseThrow().get(0).getId());
+    }
+
+    private ProductoResponse producto(Long id, boolean activo) {
+        ProductoResponse producto = new ProductoResponse();
+        producto.setId(id);
+        producto.setActivo(activo);
+        producto.setFechaCreacion(LocalDateTime.of(2025, 1, id.intValue(), 10, 0));
+        return producto;
+    }
+}
@@ -1,7 +1,11 @@
 package com.seedstoroots.app.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seedstoroots.app.catalogo.CatalogoPayloadCache;
 import com.seedstoroots.app.dto.ProductoRequest;
 import com.seedstoroots.app.dto.ProductoResponse;
+import com.seedstoroots.app.service.ExportacionProductoService;
 import com.seedstoroots.app.service.ProductoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,18 +13,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class ProductoControllerTest {
@@ -28,9 +46,14 @@ class ProductoControllerTest {
     @Mock
     private ProductoService productoService;
 
+    @Mock
+    private ExportacionProductoService exportacionProductoService;
+
     @InjectMocks
     private ProductoController productoController;
 
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     private ProductoResponse productoResponse;
     private ProductoRequest productoRequest;
 
@@ -49,20 +72,66 @@ class ProductoControllerTest {
     }
 
     @Test
-    void obtenerTodos_DeberiaRetornarListaDeProductos() {
+    void obtenerTodos_DeberiaRetornarListaDeProductos() throws Exception {
         // Arrange
-        List<ProductoResponse> productos = Arrays.asList(productoResponse);
-        when(productoService.obtenerTodos()).thenReturn(productos);
+        when(productoService.obtenerCatalogoSerializado()).thenReturn(payload(Arrays.asList(productoResponse)));
 
         // Act
-        ResponseEntity<List<ProductoResponse>> response = productoController.obtenerTodos();
+        ResponseEntity<byte[]> response = productoController.obtenerTodos(null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(1, response.getBody().size());
-        assertEquals("Semillas de Tomate", response.getBody().get(0).getNombre());
-        verify(productoService, times(1)).obtenerTodos();
+        List<ProductoResponse> productos = objectMapper.readValue(response.getBody(),
+                new TypeReference<List<ProductoResponse>>() { });
+        assertEquals(1, productos.size());
+        assertEquals("Semillas de Tomate", productos.get(0).getNombre());
+        verify(productoService, times(1)).obtenerCatalogoSerializado();
+    }
+
+    @Test
+    void obtenerTodos_DeberiaIncluirETagYCacheControl() throws Exception {
+        // Arrange
+        when(productoService.obtenerCatalogoSerializado()).thenReturn(payload(List.of(productoResponse)));
+
+        // Act
+        ResponseEntity<byte[]> response = productoController.obtenerTodos(null);
+
+        // Assert
+        assertEquals("\"catalogo-abc123\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getCacheControl().contains("public"));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void obtenerTodos_ConAcceptEncodingGzip_DeberiaRetornarBytesComprimidos() throws Exception {
+        // Arrange
+        when(productoService.obtenerCatalogoSerializado()).thenReturn(payload(List.of(productoResponse)));
+
+        // Act
+        ResponseEntity<byte[]> response = productoController.obtenerTodos("br;q=1.0, gzip;q=0.8");
+
+        // Assert
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"catalogo-abc123-gzip\"", response.getHeaders().getETag());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            List<ProductoResponse> productos = objectMapper.readValue(gzip,
+                    new TypeReference<List<ProductoResponse>>() { });
+            assertEquals(1, productos.size());
+        }
+    }
+
+    @Test
+    void obtenerTodos_ConIfNoneMatchVigente_DeberiaRetornar304SinCuerpo() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(productoController).build();
+        when(productoService.obtenerCatalogoSerializado()).thenReturn(payload(List.of(productoResponse)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/productos").header(HttpHeaders.IF_NONE_MATCH, "\"catalogo-abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalogo-abc123\""))
+                .andExpect(content().string(""));
     }
 
     @Test
@@ -136,4 +205,58 @@ class ProductoControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(productoService, times(1)).eliminar(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void obtenerPorId_CuandoCambiaElPrecio_DeberiaCambiarElETag() {
+        // Arrange
+        when(productoService.obtenerPorId(1L)).thenReturn(productoResponse);
+        String antes = productoController.obtenerPorId(1L).getHeaders().getETag();
+        productoResponse.setPrecio(BigDecimal.valueOf(3490));
+
+        // Act
+        String despues = productoController.obtenerPorId(1L).getHeaders().getETag();
+
+        // Assert
+        assertNotNull(antes);
+        assertNotEquals(antes, despues);
+    }
+
+    @Test
+    void obtenerRecientes_ConIfNoneMatchVigente_DeberiaRetornar304SinArmarLaLista() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(productoController).build();
+        when(productoService.obtenerHuellaCatalogo()).thenReturn("abc123");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/productos/recientes").param("limit", "5")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"recientes-5-abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"recientes-5-abc123\""))
+                .andExpect(content().string(""));
+        verify(productoService, never()).obtenerRecientes(anyInt());
+    }
+
+    @Test
+    void exportar_DeberiaUsarElTimeoutPropioDeLaExportacion() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(productoController, "timeoutExportacionMs", 600000L);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(productoController).build();
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/api/productos/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        assertEquals(600000L, resultado.getRequest().getAsyncContext().getTimeout());
+    }
+
+    private CatalogoPayloadCache.Payload payload(List<ProductoResponse> productos) throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(productos);
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+            gzip.write(json);
+        }
+        return new CatalogoPayloadCache.Payload(1L, "abc123", json, comprimido.toByteArray());
+    }
+}
@@ -0,0 +1,117 @@
+package com.seedstoroots.app.repository;
+
+import com.seedstoroots.app.entity.Producto;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica con EXPLAIN que cada combinacion de filtros y orden del listado se resuelve con
+ * un indice de productos y nunca con un recorrido completo de la tabla.
+ */
+@DataJpaTest(properties = {
+        // Valores en linea para poder pedir el plan del SQL capturado sin enlazar parametros
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.seedstoroots.app.repository.ProductoRepositoryPlanTest$CapturadorSql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ProductoRepositoryPlanTest {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void buscarResumen_ConCualquierFiltroYOrden_NoDeberiaRecorrerLaTablaCompleta() throws Exception {
+        // Arrange
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto " + i);
+            producto.setCategoria("Categoria " + (i % 8));
+            producto.setPrecio(BigDecimal.valueOf(1000 + (i * 137) % 40000));
+            producto.setStock(i % 5);
+            producto.setSku("PLAN-" + i);
+            producto.setActivo(i % 10 != 0);
+            productos.add(producto);
+        }
+        productoRepository.saveAllAndFlush(productos);
+
+        List<String> conRecorridoCompleto = new ArrayList<>();
+        for (String categoria : Arrays.asList(null, "Categoria 3")) {
+            for (BigDecimal[] rango : new BigDecimal[][]{
+                    {null, null},
+                    {BigDecimal.valueOf(5000), null},
+                    {null, BigDecimal.valueOf(20000)},
+                    {BigDecimal.valueOf(5000), BigDecimal.valueOf(20000)}}) {
+                for (boolean enStock : new boolean[]{false, true}) {
+                    for (FiltroProductos.Orden orden : FiltroProductos.Orden.values()) {
+                        for (boolean conCursor : new boolean[]{false, true}) {
+                            FiltroProductos filtro = new FiltroProductos(categoria, rango[0], rango[1], enStock, orden);
+                            Object valorDesde = !conCursor ? null
+                                    : orden == FiltroProductos.Orden.RECIENTES ? LocalDateTime.now() : BigDecimal.valueOf(9000);
+
+                            // Act
+                            CapturadorSql.ultimo = null;
+                            productoRepository.buscarResumen(filtro, valorDesde, conCursor ? 100L : null, 21);
+                            String plan = explicar(CapturadorSql.ultimo);
+
+                            // Assert
+                            if (plan.contains("tableScan")) {
+                                conRecorridoCompleto.add(filtro + " cursor=" + conCursor + "\n" + plan);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(conRecorridoCompleto.isEmpty(), String.join("\n\n", conRecorridoCompleto));
+    }
+
+    private String explicar(String sql) throws Exception {
+        assertNotNull(sql, "No se capturo la consulta");
+        // Solo queda como parametro el limite de filas
+        String sinParametros = sql.replace("?", "21");
+        Connection conexion = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = conexion.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN " + sinParametros)) {
+            plan.next();
+            return plan.getString(1);
+        } finally {
+            DataSourceUtils.releaseConnection(conexion, dataSource);
+        }
+    }
+
+    public static class CapturadorSql implements StatementInspector {
+
+        static volatile String ultimo;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("from productos")) {
+                ultimo = sql;
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.seedstoroots.app.security.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seedstoroots.app.security.limite.LimitadorIntentos;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LimiteIntentosFilterTest {
+
+    @Mock
+    private LimitadorIntentos limitadorIntentos;
+
+    private LimiteIntentosFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LimiteIntentosFilter(limitadorIntentos, new ObjectMapper());
+    }
+
+    @Test
+    void login_ConTokens_DeberiaPasarElCuerpoIntactoAlControlador() throws Exception {
+        // Arrange
+        String cuerpo = "{\"email\":\"test@ejemplo.com\",\"password\":\"password123\"}";
+        MockHttpServletRequest request = login(cuerpo);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(cuerpo, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        verify(limitadorIntentos).consumirPorIp("10.0.0.1");
+        verify(limitadorIntentos).consumirPorEmail("test@ejemplo.com");
+    }
+
+    @Test
+    void login_LecturaNoBloqueante_DeberiaAvisarAlReadListener() throws Exception {
+        // Arrange
+        String cuerpo = "{\"email\":\"test@ejemplo.com\",\"password\":\"password123\"}";
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login(cuerpo), new MockHttpServletResponse(), chain);
+        ServletInputStream entrada = chain.getRequest().getInputStream();
+        ByteArrayOutputStream leido = new ByteArrayOutputStream();
+        AtomicBoolean terminado = new AtomicBoolean();
+
+        // Act
+        entrada.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (entrada.isReady() && !entrada.isFinished()) {
+                    leido.write(entrada.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                terminado.set(true);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                fail(error);
+            }
+        });
+
+        // Assert
+        assertTrue(terminado.get());
+        assertEquals(cuerpo, leido.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void login_SinTokensParaElEmail_DeberiaResponder429() throws Exception {
+        // Arrange
+        when(limitadorIntentos.consumirPorEmail("test@ejemplo.com")).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(login("{\"email\":\"test@ejemplo.com\"}"), response, chain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void otrasRutas_NoDeberianConsumirTokens() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        verifyNoInteractions(limitadorIntentos);
+    }
+
+    private MockHttpServletRequest login(String cuerpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setRemoteAddr("10.0.0.1");
+        request.setContentType("application/json");
+        request.setContent(cuerpo.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package com.seedstoroots.app.security.filters;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recorre Tomcat completo: detras del proxy la IP del cliente sale de X-Forwarded-For y no de
+ * la conexion, que es la misma para todos. Las peticiones llegan desde 127.0.0.1, un proxy interno.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "seguridad.limite.ip.capacidad=2",
+        "seguridad.limite.ip.recarga-por-minuto=1"
+})
+@ActiveProfiles("test")
+class LimiteIntentosProxyTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void login_DetrasDelProxy_DeberiaLimitarPorLaIpDelCliente() {
+        // Arrange
+        login("203.0.113.10", 1);
+        login("203.0.113.10", 2);
+
+        // Act
+        HttpStatus tercero = login("203.0.113.10", 3);
+        HttpStatus otroCliente = login("203.0.113.20", 4);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, tercero);
+        assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, otroCliente);
+    }
+
+    @Test
+    void login_ConXForwardedForFalsificado_DeberiaUsarLaIpQueVioElProxy() {
+        // Arrange: el cliente agrega direcciones inventadas; el proxy agrega la real al final
+        login("198.51.100.1, 203.0.113.30", 1);
+        login("198.51.100.2, 203.0.113.30", 2);
+
+        // Act
+        HttpStatus tercero = login("198.51.100.3, 203.0.113.30", 3);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, tercero);
+    }
+
+    private HttpStatus login(String xForwardedFor, int intento) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", xForwardedFor);
+        String cuerpo = "{\"email\":\"proxy" + intento + "-" + xForwardedFor.hashCode() + "@ejemplo.com\",\"password\":\"x\"}";
+        ResponseEntity<String> respuesta = restTemplate.postForEntity("/auth/login", new HttpEntity<>(cuerpo, headers), String.class);
+        return HttpStatus.valueOf(respuesta.getStatusCode().value());
+    }
+}
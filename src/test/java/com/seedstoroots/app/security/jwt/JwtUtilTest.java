@@ -2,21 +2,26 @@ package com.seedstoroots.app.security.jwt;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class JwtUtilTest {
 
+    private static final String SECRET =
+            "TuClaveSecretaSuperSeguraParaJWT2024SeedsToRootsQueDebeSerMuyLargaParaQueSeaSegura";
+
     private JwtUtil jwtUtil;
 
     @BeforeEach
     void setUp() {
-        jwtUtil = new JwtUtil();
-        // Inyectar valores de configuración manualmente
-        ReflectionTestUtils.setField(jwtUtil, "secret",
-                "TuClaveSecretaSuperSeguraParaJWT2024SeedsToRootsQueDebeSerMuyLargaParaQueSeaSegura");
-        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        jwtUtil = new JwtUtil(SECRET, 86400000L, 100);
     }
 
     @Test
@@ -89,4 +94,95 @@ class JwtUtilTest {
         // Assert
         assertEquals(5L, userId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPrincipalFromToken_DeberiaArmarPrincipalConLosClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken("test@ejemplo.com", "CLIENTE", 7L);
+
+        // Act
+        UsuarioPrincipal principal = jwtUtil.getPrincipalFromToken(token).orElseThrow();
+
+        // Assert
+        assertEquals(7L, principal.userId());
+        assertEquals("test@ejemplo.com", principal.getName());
+        assertEquals("CLIENTE", principal.rol());
+    }
+
+    @Test
+    void getPrincipalFromToken_ConTokenInvalido_DeberiaRetornarVacio() {
+        // Act & Assert
+        assertTrue(jwtUtil.getPrincipalFromToken("token.invalido.aqui").isEmpty());
+    }
+
+    @Test
+    void getPrincipalFromToken_MismoToken_DeberiaResponderDesdeElCache() {
+        // Arrange
+        String token = jwtUtil.generateToken("test@ejemplo.com", "CLIENTE", 7L);
+
+        // Act
+        UsuarioPrincipal primero = jwtUtil.getPrincipalFromToken(token).orElseThrow();
+        UsuarioPrincipal segundo = jwtUtil.getPrincipalFromToken(token).orElseThrow();
+
+        // Assert
+        assertSame(primero, segundo);
+        assertEquals(1, jwtUtil.tamanoCache());
+    }
+
+    @Test
+    void getPrincipalFromToken_CacheLleno_DeberiaDescartarElMenosUsado() {
+        // Arrange
+        JwtUtil conCacheChico = new JwtUtil(SECRET, 86400000L, 2);
+        String primero = conCacheChico.generateToken("uno@ejemplo.com", "CLIENTE", 1L);
+        String segundo = conCacheChico.generateToken("dos@ejemplo.com", "CLIENTE", 2L);
+        String tercero = conCacheChico.generateToken("tres@ejemplo.com", "CLIENTE", 3L);
+
+        // Act
+        UsuarioPrincipal primeroLeido = conCacheChico.getPrincipalFromToken(primero).orElseThrow();
+        conCacheChico.getPrincipalFromToken(segundo);
+        conCacheChico.getPrincipalFromToken(primero);
+        conCacheChico.getPrincipalFromToken(tercero);
+
+        // Assert
+        assertEquals(2, conCacheChico.tamanoCache());
+        assertSame(primeroLeido, conCacheChico.getPrincipalFromToken(primero).orElseThrow());
+    }
+
+    @Test
+    void getPrincipalFromToken_TokenVencido_NoDeberiaGuardarseEnCache() {
+        // Arrange
+        JwtUtil conTokensVencidos = new JwtUtil(SECRET, -60000L, 100);
+        String token = conTokensVencidos.generateToken("test@ejemplo.com", "CLIENTE", 1L);
+
+        // Act & Assert
+        assertTrue(conTokensVencidos.getPrincipalFromToken(token).isEmpty());
+        assertEquals(0, conTokensVencidos.tamanoCache());
+    }
+
+    @Test
+    void getPrincipalFromToken_VariosHilos_DeberiaMantenerElCacheAcotado() throws Exception {
+        // Arrange
+        JwtUtil conCacheChico = new JwtUtil(SECRET, 86400000L, 50);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tokens.add(conCacheChico.generateToken("u" + i + "@ejemplo.com", "CLIENTE", (long) i));
+        }
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        for (int h = 0; h < 8; h++) {
+            resultados.add(hilos.submit(() -> tokens.stream()
+                    .allMatch(token -> conCacheChico.getPrincipalFromToken(token).isPresent())));
+        }
+        hilos.shutdown();
+
+        // Assert
+        for (Future<Boolean> resultado : resultados) {
+            assertTrue(resultado.get(30, TimeUnit.SECONDS));
+        }
+        // Un token nuevo sin competencia desaloja lo que otros hilos agregaron durante el ultimo desalojo
+        conCacheChico.getPrincipalFromToken(conCacheChico.generateToken("otro@ejemplo.com", "CLIENTE", 999L));
+        assertTrue(conCacheChico.tamanoCache() <= 50);
+    }
+}
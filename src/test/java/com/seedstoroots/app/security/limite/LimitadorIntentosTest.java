@@ -0,0 +1,119 @@
+package com.seedstoroots.app.security.limite;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorIntentosTest {
+
+    private final AtomicLong reloj = new AtomicLong(0);
+    private LimitadorIntentos limitador;
+
+    @BeforeEach
+    void setUp() {
+        limitador = new LimitadorIntentos(
+                new LimitadorIntentos.Limite(3, 60),
+                new LimitadorIntentos.Limite(2, 6),
+                reloj::get);
+    }
+
+    @Test
+    void consumirPorIp_SinTokens_DeberiaIndicarLaEspera() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limitador.consumirPorIp("10.0.0.1"));
+        }
+        long espera = limitador.consumirPorIp("10.0.0.1");
+
+        // Assert: 60 por minuto es un token por segundo
+        assertEquals(TimeUnit.SECONDS.toNanos(1), espera);
+        assertEquals(0, limitador.consumirPorIp("10.0.0.2"));
+    }
+
+    @Test
+    void consumirPorEmail_TrasRecargar_DeberiaPermitirDeNuevo() {
+        // Arrange
+        limitador.consumirPorEmail("Test@Ejemplo.com");
+        limitador.consumirPorEmail("test@ejemplo.com ");
+        assertTrue(limitador.consumirPorEmail("test@ejemplo.com") > 0);
+
+        // Act
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        // Assert
+        assertEquals(0, limitador.consumirPorEmail("test@ejemplo.com"));
+    }
+
+    @Test
+    void purgarCubetasLlenas_DeberiaQuitarSoloLasRecargadas() {
+        // Arrange
+        limitador.consumirPorIp("10.0.0.1");
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limitador.consumirPorEmail("test@ejemplo.com");
+
+        // Act
+        limitador.purgarCubetasLlenas();
+
+        // Assert
+        assertEquals(1, limitador.cubetasActivas());
+    }
+
+    @Test
+    void purgarCubetasLlenas_ConIntentosConcurrentes_NoDeberiaDevolverTokensConsumidos() throws Exception {
+        // Arrange: sin recarga, cada IP nueva tiene un solo intento
+        LimitadorIntentos sinRecarga = new LimitadorIntentos(
+                new LimitadorIntentos.Limite(1, 0),
+                new LimitadorIntentos.Limite(1, 0),
+                reloj::get);
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        AtomicBoolean purgando = new AtomicBoolean(true);
+        int hilos = 4;
+        int ips = 500;
+        try {
+            Future<?> purga = pool.submit(() -> {
+                while (purgando.get()) {
+                    sinRecarga.purgarCubetasLlenas();
+                }
+            });
+            CountDownLatch inicio = new CountDownLatch(1);
+            List<Future<Integer>> permitidos = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                permitidos.add(pool.submit(() -> {
+                    inicio.await();
+                    int total = 0;
+                    for (int i = 0; i < ips; i++) {
+                        if (sinRecarga.consumirPorIp("10.1." + (i / 250) + "." + (i % 250)) == 0) {
+                            total++;
+                        }
+                    }
+                    return total;
+                }));
+            }
+
+            // Act
+            inicio.countDown();
+            int total = 0;
+            for (Future<Integer> permitido : permitidos) {
+                total += permitido.get(30, TimeUnit.SECONDS);
+            }
+            purgando.set(false);
+            purga.get(30, TimeUnit.SECONDS);
+
+            // Assert
+            assertEquals(ips, total);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.seedstoroots.app.security.password;
+
+import com.seedstoroots.app.dto.EstadisticasHashingResponse;
+import com.seedstoroots.app.exception.ServicioSaturadoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodificadorContrasenasTest {
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final CountDownLatch ocupado = new CountDownLatch(1);
+    private CodificadorContrasenas codificador;
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        if (codificador != null) {
+            codificador.cerrar();
+        }
+    }
+
+    @Test
+    void encode_DeberiaDelegarYRegistrarTiempos() {
+        // Arrange
+        codificador = new CodificadorContrasenas(new EncoderDePrueba(), 1, 4, 5000, 2);
+
+        // Act
+        String hash = codificador.encode("password123");
+        boolean coincide = codificador.matches("password123", hash);
+        EstadisticasHashingResponse estadisticas = codificador.obtenerEstadisticas();
+
+        // Assert
+        assertEquals("hash:password123", hash);
+        assertTrue(coincide);
+        assertEquals(2L, estadisticas.getCompletadas());
+        assertEquals(0L, estadisticas.getRechazadas());
+        assertEquals(1, estadisticas.getHilos());
+    }
+
+    @Test
+    void encode_ColaLlena_DeberiaRechazarConRetryAfter() throws Exception {
+        // Arrange: el unico hilo queda bloqueado y la cola de 1 se ocupa con otro pedido
+        codificador = new CodificadorContrasenas(new EncoderBloqueante(), 1, 1, 5000, 3);
+        CompletableFuture.runAsync(() -> codificador.encode("primero"));
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> codificador.encode("segundo"));
+        while (codificador.obtenerEstadisticas().getEnCola() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        ServicioSaturadoException error = assertThrows(ServicioSaturadoException.class,
+                () -> codificador.encode("tercero"));
+
+        // Assert
+        assertEquals(3, error.getRetryAfterSegundos());
+        assertEquals(1L, codificador.obtenerEstadisticas().getRechazadas());
+    }
+
+    @Test
+    void matches_SinRespuestaDentroDeLaEspera_DeberiaRechazar() {
+        // Arrange
+        codificador = new CodificadorContrasenas(new EncoderBloqueante(), 1, 4, 50, 2);
+
+        // Act & Assert
+        assertThrows(ServicioSaturadoException.class, () -> codificador.matches("password123", "hash"));
+    }
+
+    private static class EncoderDePrueba implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private class EncoderBloqueante extends EncoderDePrueba {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            esperar();
+            return super.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            esperar();
+            return super.matches(rawPassword, encodedPassword);
+        }
+
+        private void esperar() {
+            ocupado.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -8,20 +8,27 @@ import com.seedstoroots.app.entity.Usuario;
 import com.seedstoroots.app.repository.UsuarioRepository;
 import com.seedstoroots.app.security.jwt.JwtUtil;
 import com.seedstoroots.app.service.impl.AuthServiceImpl;
+import com.seedstoroots.app.usuario.RegistroUltimoLogin;
+import com.seedstoroots.app.usuario.UsuariosRegistrados;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,18 +40,24 @@ class AuthServiceImplTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Spy
+    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+    @Mock
+    private RegistroUltimoLogin registroUltimoLogin;
+
+    @Mock
+    private UsuariosRegistrados usuariosRegistrados;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
     private Usuario usuarioMock;
     private LoginRequest loginRequest;
     private RegisterRequest registerRequest;
-    private BCryptPasswordEncoder passwordEncoder;
 
     @BeforeEach
     void setUp() {
-        passwordEncoder = new BCryptPasswordEncoder();
-
         // Usuario mock
         usuarioMock = new Usuario();
         usuarioMock.setId(1L);
@@ -93,7 +106,8 @@ class AuthServiceImplTest {
         assertEquals("test@ejemplo.com", response.getEmail());
         assertEquals("CLIENTE", response.getRol());
         verify(usuarioRepository, times(1)).findByEmail("test@ejemplo.com");
-        verify(usuarioRepository, times(1)).save(any(Usuario.class)); // Actualiza ultimo login
+        verify(registroUltimoLogin, times(1)).registrar(eq(1L), any(LocalDateTime.class)); // Anota ultimo login
+        verify(usuarioRepository, never()).save(any(Usuario.class));
     }
 
     @Test
@@ -139,11 +153,8 @@ class AuthServiceImplTest {
     }
 
     @Test
-    void register_ConDatosValidos_DeberiaCrearUsuario() {
-        // Arrange
-        when(usuarioRepository.existsByEmail(anyString())).thenReturn(false);
-        when(usuarioRepository.existsByRun(anyString())).thenReturn(false);
-        when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuarioMock);
+    void register_ConDatosValidos_DeberiaInsertarSinConsultasPrevias() {
+        // Arrange: el filtro de registrados descarta el email y el RUN
         when(jwtUtil.generateToken(anyString(), anyString(), any()))
                 .thenReturn("fake-jwt-token");
 
@@ -153,35 +164,55 @@ class AuthServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals("fake-jwt-token", response.getToken());
-        verify(usuarioRepository, times(1)).existsByEmail("nuevo@ejemplo.com");
-        verify(usuarioRepository, times(1)).existsByRun("98765432-1");
-        verify(usuarioRepository, times(1)).save(any(Usuario.class));
+        verify(usuarioRepository, never()).existsByEmail(anyString());
+        verify(usuarioRepository, never()).existsByRun(anyString());
+        verify(usuarioRepository, times(1)).saveAndFlush(any(Usuario.class));
+        verify(usuariosRegistrados, times(1)).agregar("nuevo@ejemplo.com", "98765432-1");
     }
 
     @Test
     void register_ConEmailExistente_DeberiaLanzarExcepcion() {
         // Arrange
+        when(usuariosRegistrados.podriaExistirEmail("nuevo@ejemplo.com")).thenReturn(true);
         when(usuarioRepository.existsByEmail("nuevo@ejemplo.com")).thenReturn(true);
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
+        RuntimeException error = assertThrows(RuntimeException.class, () -> {
             authService.register(registerRequest);
         });
+        assertEquals("El email ya está registrado", error.getMessage());
         verify(usuarioRepository, times(1)).existsByEmail("nuevo@ejemplo.com");
-        verify(usuarioRepository, never()).save(any());
+        verify(usuarioRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void register_ConRunExistente_DeberiaLanzarExcepcion() {
         // Arrange
-        when(usuarioRepository.existsByEmail(anyString())).thenReturn(false);
+        when(usuariosRegistrados.podriaExistirRun("98765432-1")).thenReturn(true);
         when(usuarioRepository.existsByRun("98765432-1")).thenReturn(true);
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
+        RuntimeException error = assertThrows(RuntimeException.class, () -> {
             authService.register(registerRequest);
         });
+        assertEquals("El RUN ya está registrado", error.getMessage());
         verify(usuarioRepository, times(1)).existsByRun("98765432-1");
-        verify(usuarioRepository, never()).save(any());
+        verify(usuarioRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void register_ConEmailDuplicadoNoDetectado_DeberiaTraducirLaRestriccionUnique() {
+        // Arrange: dos registros simultaneos pasan la validacion y el segundo choca con la restriccion
+        when(usuarioRepository.saveAndFlush(any(Usuario.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("ERROR: duplicate key value violates unique constraint \"uk_usuarios_email\"\n" +
+                        "  Detail: Key (email)=(nuevo@ejemplo.com) already exists.")));
+
+        // Act & Assert
+        RuntimeException error = assertThrows(RuntimeException.class, () -> {
+            authService.register(registerRequest);
+        });
+        assertEquals("El email ya está registrado", error.getMessage());
+        verify(usuariosRegistrados, never()).agregar(anyString(), anyString());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+package com.seedstoroots.app.service;
+
+import com.seedstoroots.app.dto.CarritoRequest;
+import com.seedstoroots.app.dto.CarritoResponse;
+import com.seedstoroots.app.entity.*;
+import com.seedstoroots.app.service.impl.CarritoServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cuenta las sentencias SQL de cada operacion del carrito con las estadisticas de Hibernate:
+ * el carrito, sus items y sus productos se leen en una sola consulta sin importar cuantos
+ * items tenga.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CarritoServiceImpl.class)
+class CarritoServiceImplConsultasTest {
+
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private CarritoServiceImpl carritoService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private Long usuarioId;
+    private Long primerProductoId;
+
+    @BeforeEach
+    void setUp() {
+        Usuario usuario = new Usuario();
+        usuario.setRun("11111111-1");
+        usuario.setNombre("Ana");
+        usuario.setApellidos("Perez");
+        usuario.setEmail("ana@ejemplo.com");
+        usuario.setPasswordHash("hash");
+        entityManager.persist(usuario);
+
+        Carrito carrito = new Carrito();
+        carrito.setUsuario(usuario);
+        for (int i = 0; i < ITEMS; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto " + i);
+            producto.setPrecio(BigDecimal.valueOf(1000 + i));
+            producto.setStock(100);
+            producto.setSku("CARRITO-" + i);
+            producto.setActivo(true);
+            entityManager.persist(producto);
+
+            CarritoItem item = new CarritoItem();
+            item.setCarrito(carrito);
+            item.setProducto(producto);
+            item.setPrecioUnitario(producto.getPrecio());
+            item.setCantidad(1);
+            carrito.getItems().add(item);
+            if (i == 0) {
+                primerProductoId = producto.getId();
+            }
+        }
+        entityManager.persist(carrito);
+        entityManager.flush();
+        entityManager.clear();
+
+        usuarioId = usuario.getId();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void obtenerCarrito_DeberiaUsarUnaSolaConsulta() {
+        // Act
+        CarritoResponse response = carritoService.obtenerCarrito(usuarioId);
+
+        // Assert
+        assertEquals(ITEMS, response.getItems().size());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void agregarProducto_ProductoEnCarrito_DeberiaLeerCarritoItemsYProductosEnUnaConsulta() {
+        // Arrange
+        CarritoRequest request = new CarritoRequest();
+        request.setProductoId(primerProductoId);
+        request.setCantidad(2);
+
+        // Act
+        CarritoResponse response = carritoService.agregarProducto(usuarioId, request);
+        long lecturas = estadisticas.getPrepareStatementCount();
+        entityManager.flush();
+
+        // Assert
+        assertEquals(ITEMS, response.getItems().size());
+        assertEquals(1, lecturas);
+        assertEquals(0, estadisticas.getEntityFetchCount());
+        assertEquals(0, estadisticas.getCollectionFetchCount());
+        assertEquals(1, estadisticas.getEntityUpdateCount());
+    }
+
+    @Test
+    void eliminarProducto_DeberiaLeerCarritoItemsYProductosEnUnaConsulta() {
+        // Act
+        CarritoResponse response = carritoService.eliminarProducto(usuarioId, primerProductoId);
+        long lecturas = estadisticas.getPrepareStatementCount();
+        entityManager.flush();
+
+        // Assert
+        assertEquals(ITEMS - 1, response.getItems().size());
+        assertEquals(1, lecturas);
+        assertEquals(0, estadisticas.getEntityFetchCount());
+        assertEquals(1, estadisticas.getEntityDeleteCount());
+    }
+}
@@ -11,13 +11,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +40,9 @@ class CarritoServiceImplTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CarritoServiceImpl carritoService;
 
@@ -71,11 +79,19 @@ class CarritoServiceImplTest {
     }
 
     @Test
-    void obtenerCarrito_CuandoExiste_DeberiaRetornarCarrito() {
+    void obtenerCarrito_CuandoExiste_DeberiaRetornarCarritoDesdeLaProyeccion() {
         // Arrange
-        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(carritoRepository.findByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
-                .thenReturn(Optional.of(carrito));
+        CarritoItemFila fila = new SpelAwareProxyProjectionFactory().createProjection(CarritoItemFila.class, Map.of(
+                "carritoId", 1L,
+                "usuarioId", 1L,
+                "itemId", 10L,
+                "productoId", 1L,
+                "productoNombre", "Tomate",
+                "precioUnitario", BigDecimal.valueOf(2990),
+                "cantidad", 2,
+                "subtotal", BigDecimal.valueOf(5980)));
+        when(carritoRepository.findFilasByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
+                .thenReturn(List.of(fila));
 
         // Act
         CarritoResponse response = carritoService.obtenerCarrito(1L);
@@ -84,31 +100,67 @@ class CarritoServiceImplTest {
         assertNotNull(response);
         assertEquals(1L, response.getId());
         assertEquals(1L, response.getUsuarioId());
-        verify(carritoRepository, times(1))
-                .findByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO);
+        assertEquals(1, response.getItems().size());
+        assertEquals("Tomate", response.getItems().get(0).getProductoNombre());
+        assertEquals(BigDecimal.valueOf(5980), response.getTotal());
+        verify(carritoRepository, never()).findConItemsByUsuarioIdAndEstado(any(), any());
+        verifyNoInteractions(usuarioRepository);
     }
 
     @Test
-    void obtenerCarrito_CuandoNoExiste_DeberiaCrearNuevo() {
+    void obtenerCarrito_CuandoNoExiste_DeberiaRetornarCarritoVacioSinGuardar() {
         // Arrange
-        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(carritoRepository.findByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
-                .thenReturn(Optional.empty());
-        when(carritoRepository.save(any(Carrito.class))).thenReturn(carrito);
+        when(carritoRepository.findFilasByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
+                .thenReturn(List.of());
 
         // Act
         CarritoResponse response = carritoService.obtenerCarrito(1L);
 
         // Assert
-        assertNotNull(response);
-        verify(carritoRepository, times(1)).save(any(Carrito.class));
+        assertNull(response.getId());
+        assertEquals(1L, response.getUsuarioId());
+        assertTrue(response.getItems().isEmpty());
+        assertEquals(BigDecimal.ZERO, response.getTotal());
+        verify(carritoRepository, never()).save(any(Carrito.class));
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    @Test
+    void agregarProducto_SinCarrito_DeberiaCrearCarritoConElProducto() {
+        // Arrange
+        producto.setActivo(true);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(carritoRepository.findConItemsByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
+                .thenReturn(Optional.empty());
+        when(usuarioRepository.getReferenceById(1L)).thenReturn(usuario);
+
+        // Act
+        CarritoResponse response = carritoService.agregarProducto(1L, carritoRequest);
+
+        // Assert
+        assertEquals(1, response.getItems().size());
+        verify(usuarioRepository, never()).findById(any());
+        verify(carritoRepository).save(argThat(nuevo ->
+                nuevo.getUsuario() == usuario && nuevo.getItems().size() == 1));
+    }
+
+    @Test
+    void limpiarCarrito_SinCarrito_NoDeberiaCrearUno() {
+        // Arrange
+        when(carritoRepository.findConItemsByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
+                .thenReturn(Optional.empty());
+
+        // Act
+        carritoService.limpiarCarrito(1L);
+
+        // Assert
+        verify(carritoRepository, never()).save(any(Carrito.class));
     }
 
     @Test
     void agregarProducto_ProductoNuevo_DeberiaAgregarAlCarrito() {
         // Arrange
-        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(carritoRepository.findByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
+        when(carritoRepository.findConItemsByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
                 .thenReturn(Optional.of(carrito));
         when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
         when(carritoRepository.save(any(Carrito.class))).thenReturn(carrito);
@@ -131,8 +183,7 @@ class CarritoServiceImplTest {
         itemExistente.setPrecioUnitario(BigDecimal.valueOf(2990));
         carrito.getItems().add(itemExistente);
 
-        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(carritoRepository.findByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
+        when(carritoRepository.findConItemsByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
                 .thenReturn(Optional.of(carrito));
         when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
         when(carritoRepository.save(any(Carrito.class))).thenReturn(carrito);
@@ -149,8 +200,7 @@ class CarritoServiceImplTest {
     @Test
     void agregarProducto_ProductoNoExiste_DeberiaLanzarExcepcion() {
         // Arrange
-        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(carritoRepository.findByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
+        when(carritoRepository.findConItemsByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
                 .thenReturn(Optional.of(carrito));
         when(productoRepository.findById(999L)).thenReturn(Optional.empty());
 
@@ -169,8 +219,7 @@ class CarritoServiceImplTest {
         item.setProducto(producto);
         carrito.getItems().add(item);
 
-        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(carritoRepository.findByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
+        when(carritoRepository.findConItemsByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
                 .thenReturn(Optional.of(carrito));
         when(carritoRepository.save(any(Carrito.class))).thenReturn(carrito);
 
@@ -191,8 +240,7 @@ class CarritoServiceImplTest {
         carrito.getItems().add(item1);
         carrito.getItems().add(item2);
 
-        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(carritoRepository.findByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
+        when(carritoRepository.findConItemsByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO))
                 .thenReturn(Optional.of(carrito));
         when(carritoRepository.save(any(Carrito.class))).thenReturn(carrito);
 
@@ -0,0 +1,84 @@
+package com.seedstoroots.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seedstoroots.app.entity.Producto;
+import com.seedstoroots.app.repository.ProductoRepository;
+import com.seedstoroots.app.service.impl.ExportacionProductoServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacionProductoServiceImplTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ExportacionProductoServiceImpl exportacionService;
+
+    @BeforeEach
+    void setUp() {
+        exportacionService = new ExportacionProductoServiceImpl(productoRepository, entityManager,
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void exportar_EnNdjson_DeberiaEscribirUnProductoPorLineaYDesprenderlos() throws Exception {
+        // Arrange
+        when(productoRepository.streamProductosActivos())
+                .thenReturn(Stream.of(producto(1L, "Semillas de Tomate"), producto(2L, "Semillas de Ají")));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        exportacionService.exportar(salida, ExportacionProductoService.Formato.NDJSON);
+
+        // Assert
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals("Semillas de Ají", new ObjectMapper().readTree(lineas[1]).get("nombre").asText());
+        verify(entityManager, times(2)).detach(any(Producto.class));
+    }
+
+    @Test
+    void exportar_EnCsv_DeberiaEscribirEncabezadoYEscaparCampos() {
+        // Arrange
+        when(productoRepository.streamProductosActivos())
+                .thenReturn(Stream.of(producto(1L, "Semillas \"premium\", tomate")));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        exportacionService.exportar(salida, ExportacionProductoService.Formato.CSV);
+
+        // Assert
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].startsWith("id,sku,nombre,"));
+        assertTrue(lineas[1].startsWith("1,SKU-1,\"Semillas \"\"premium\"\", tomate\","));
+    }
+
+    private Producto producto(Long id, String nombre) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        producto.setSku("SKU-" + id);
+        producto.setNombre(nombre);
+        producto.setPrecio(BigDecimal.valueOf(2990));
+        producto.setStock(10);
+        producto.setActivo(true);
+        return producto;
+    }
+}
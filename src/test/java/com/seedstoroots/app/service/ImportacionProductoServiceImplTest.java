@@ -0,0 +1,189 @@
+package com.seedstoroots.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seedstoroots.app.dto.ImportacionResponse;
+import com.seedstoroots.app.entity.Producto;
+import com.seedstoroots.app.repository.ProductoJdbcRepository;
+import com.seedstoroots.app.repository.ProductoRepository;
+import com.seedstoroots.app.service.impl.ExportacionProductoServiceImpl;
+import com.seedstoroots.app.service.impl.ImportacionProductoServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacionProductoServiceImplTest {
+
+    @Mock
+    private ProductoJdbcRepository productoJdbcRepository;
+
+    @Mock
+    private ProductoService productoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImportacionProductoServiceImpl importacionService;
+
+    @BeforeEach
+    void setUp() {
+        importacionService = new ImportacionProductoServiceImpl(productoJdbcRepository, productoService,
+                transactionManager, new ObjectMapper(), 2);
+    }
+
+    @Test
+    void importar_ConCsv_DeberiaGuardarPorLotesYRecargarUnaVez() {
+        // Arrange
+        String csv = "sku,nombre,precio,stock,categoria\n" +
+                "SEM-1,Semilla de tomate,1500,10,Semillas\n" +
+                "SEM-2,\"Semilla de ají, picante\",2000,,Semillas\n" +
+                "SEM-3,Semilla de zapallo,1800,5,Semillas\n";
+
+        // Act
+        ImportacionResponse resultado = importacionService.importar(flujo(csv), "text/csv");
+
+        // Assert
+        assertEquals(3, resultado.getFilasProcesadas());
+        assertEquals(3, resultado.getFilasImportadas());
+        assertEquals(0, resultado.getFilasConError());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Producto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productoJdbcRepository, times(2)).upsertPorSku(captor.capture());
+        assertEquals(2, captor.getAllValues().get(0).size());
+        Producto aji = captor.getAllValues().get(0).get(1);
+        assertEquals("Semilla de ají, picante", aji.getNombre());
+        assertEquals(0, aji.getStock());
+        verify(productoService, times(1)).recargarCatalogo();
+    }
+
+    @Test
+    void importar_ConCsvConBom_DeberiaReconocerLaPrimeraColumna() {
+        // Arrange
+        String csv = "\uFEFFsku,nombre,precio\n" +
+                "SEM-1,Semilla de tomate,1500\n";
+
+        // Act
+        ImportacionResponse resultado = importacionService.importar(flujo(csv), "text/csv");
+
+        // Assert
+        assertEquals(1, resultado.getFilasImportadas());
+        assertEquals(0, resultado.getFilasConError());
+    }
+
+    @Test
+    void importar_ConCsvExportado_DeberiaConservarLosSaltosDeLineaDeLaDescripcion() {
+        // Arrange
+        Producto original = new Producto();
+        original.setId(1L);
+        original.setSku("SEM-1");
+        original.setNombre("Semilla de tomate");
+        original.setDescripcion("Siembra en primavera.\nRiego \"moderado\", sin encharcar.");
+        original.setPrecio(BigDecimal.valueOf(1500));
+        original.setStock(10);
+        original.setActivo(true);
+        ProductoRepository productoRepository = mock(ProductoRepository.class);
+        when(productoRepository.streamProductosActivos()).thenReturn(Stream.of(original));
+        ExportacionProductoServiceImpl exportacionService = new ExportacionProductoServiceImpl(
+                productoRepository, mock(EntityManager.class), new ObjectMapper().findAndRegisterModules());
+        ByteArrayOutputStream exportado = new ByteArrayOutputStream();
+        exportacionService.exportar(exportado, ExportacionProductoService.Formato.CSV);
+        String csv = exportado.toString(StandardCharsets.UTF_8) + ",SEM-2,Semilla de zapallo,,,1800\n";
+
+        // Act
+        ImportacionResponse resultado = importacionService.importar(flujo(csv), "text/csv");
+
+        // Assert
+        assertEquals(2, resultado.getFilasProcesadas());
+        assertEquals(2, resultado.getFilasImportadas());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Producto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productoJdbcRepository).upsertPorSku(captor.capture());
+        assertEquals(original.getDescripcion(), captor.getValue().get(0).getDescripcion());
+        assertEquals("SEM-2", captor.getValue().get(1).getSku());
+    }
+
+    @Test
+    void importar_ConCsvConComillaSinCerrar_DeberiaReportarLaFilaDondeEmpieza() {
+        // Arrange
+        String csv = "sku,nombre,precio\nSEM-1,Semilla,1500\nSEM-2,\"Semilla sin cerrar,1500\nSEM-3,Otra,900\n";
+
+        // Act
+        ImportacionResponse resultado = importacionService.importar(flujo(csv), "text/csv");
+
+        // Assert
+        assertEquals(1, resultado.getFilasImportadas());
+        assertEquals(1, resultado.getFilasConError());
+        assertEquals(3L, resultado.getErrores().get(0).getFila());
+    }
+
+    @Test
+    void importar_ConNdjsonYFilasInvalidas_DeberiaReportarErroresSinDetenerse() {
+        // Arrange
+        String ndjson = "{\"sku\":\"SEM-1\",\"nombre\":\"Semilla\",\"precio\":1500}\n" +
+                "{\"sku\":\"SEM-2\",\"nombre\":\"Sin precio\"}\n" +
+                "no es json\n" +
+                "{\"sku\":\"SEM-3\",\"nombre\":\"Otra\",\"precio\":900}\n";
+
+        // Act
+        ImportacionResponse resultado = importacionService.importar(flujo(ndjson), "application/x-ndjson");
+
+        // Assert
+        assertEquals(4, resultado.getFilasProcesadas());
+        assertEquals(2, resultado.getFilasImportadas());
+        assertEquals(2, resultado.getFilasConError());
+        assertEquals(2L, resultado.getErrores().get(0).getFila());
+        assertEquals(3L, resultado.getErrores().get(1).getFila());
+    }
+
+    @Test
+    void importar_CuandoFallaElLote_DeberiaReintentarFilaPorFila() {
+        // Arrange
+        String csv = "sku,nombre,precio\nSEM-1,Semilla,1500\nSEM-2,Semilla mala,1500\n";
+        doThrow(new DataIntegrityViolationException("duplicado"))
+                .when(productoJdbcRepository)
+                .upsertPorSku(argThat(lote -> lote.size() == 2 || "SEM-2".equals(lote.get(0).getSku())));
+
+        // Act
+        ImportacionResponse resultado = importacionService.importar(flujo(csv), "text/csv");
+
+        // Assert
+        assertEquals(1, resultado.getFilasImportadas());
+        assertEquals(1, resultado.getFilasConError());
+        assertEquals("SEM-2", resultado.getErrores().get(0).getSku());
+        assertEquals(3L, resultado.getErrores().get(0).getFila());
+        verify(productoJdbcRepository, times(3)).upsertPorSku(anyList());
+    }
+
+    @Test
+    void importar_ConFormatoNoSoportado_DeberiaLanzarExcepcion() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> importacionService.importar(flujo("{}"), "application/xml"));
+        assertTrue(exception.getMessage().contains("Formato no soportado"));
+        verifyNoInteractions(productoJdbcRepository, productoService);
+    }
+
+    private InputStream flujo(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
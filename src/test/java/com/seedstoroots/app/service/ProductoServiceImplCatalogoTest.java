@@ -0,0 +1,185 @@
+package com.seedstoroots.app.service;
+
+import com.seedstoroots.app.catalogo.AutocompletadoProductos;
+import com.seedstoroots.app.catalogo.CatalogoCache;
+import com.seedstoroots.app.catalogo.CatalogoRecargadoEvento;
+import com.seedstoroots.app.catalogo.FacetasCatalogo;
+import com.seedstoroots.app.catalogo.IndiceBusqueda;
+import com.seedstoroots.app.catalogo.IndiceSku;
+import com.seedstoroots.app.catalogo.MonitorStockBajo;
+import com.seedstoroots.app.catalogo.ProductosRecientes;
+import com.seedstoroots.app.dto.CambiosCatalogoResponse;
+import com.seedstoroots.app.dto.ProductoRequest;
+import com.seedstoroots.app.dto.ProductoResponse;
+import com.seedstoroots.app.repository.ProductoJdbcRepository;
+import com.seedstoroots.app.service.impl.ProductoServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recorre las escrituras reales (commit y eventos despues del commit) y lee el resultado
+ * desde el snapshot en memoria, que es lo que sirven los endpoints publicos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductoServiceImplCatalogoTest {
+
+    @Autowired
+    private ProductoServiceImpl productoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductoJdbcRepository productoJdbcRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Autowired
+    private FacetasCatalogo facetasCatalogo;
+
+    @Autowired
+    private IndiceSku indiceSku;
+
+    @Autowired
+    private AutocompletadoProductos autocompletado;
+
+    @Autowired
+    private MonitorStockBajo monitorStockBajo;
+
+    @Autowired
+    private ProductosRecientes productosRecientes;
+
+    @Test
+    void actualizar_DespuesDeCrear_DeberiaReflejarseEnElSnapshot() {
+        // Arrange
+        ProductoRequest request = new ProductoRequest();
+        request.setNombre("Semillas de Zapallo");
+        request.setCategoria("Semillas");
+        request.setPrecio(BigDecimal.valueOf(10));
+        request.setStock(5);
+        request.setSku("SEM-ZAP-SNAP");
+        ProductoResponse creado = productoService.crear(request);
+
+        request.setPrecio(BigDecimal.valueOf(99));
+
+        // Act
+        productoService.actualizar(creado.getId(), request);
+
+        // Assert
+        ProductoResponse leido = productoService.obtenerPorId(creado.getId());
+        assertEquals(0, BigDecimal.valueOf(99).compareTo(leido.getPrecio()));
+        assertTrue(productoService.obtenerTodos().stream()
+                .anyMatch(p -> p.getId().equals(creado.getId()) && p.getPrecio().compareTo(BigDecimal.valueOf(99)) == 0));
+    }
+
+    @Test
+    void obtenerCambios_DeberiaEntregarCadaCambioConUnaSecuenciaMayorALaYaEntregada() {
+        // Arrange
+        productoService.publicarCambios();
+        long desde = ultimaSecuencia();
+        ProductoResponse creado = productoService.crear(request("Semillas de Acelga", "SEM-ACE-DELTA"));
+        productoService.actualizar(creado.getId(), request("Semillas de Acelga Roja", "SEM-ACE-DELTA"));
+
+        // Act
+        productoService.publicarCambios();
+        CambiosCatalogoResponse cambios = productoService.obtenerCambios(desde, 1000);
+
+        // Assert
+        assertTrue(cambios.getHasta() > desde);
+        assertTrue(cambios.getActualizados().stream()
+                .anyMatch(p -> p.getId().equals(creado.getId()) && p.getNombre().equals("Semillas de Acelga Roja")));
+    }
+
+    @Test
+    void compactarCambios_DeberiaDejarSoloElUltimoCambioDeCadaProducto() {
+        // Arrange
+        ProductoResponse creado = productoService.crear(request("Semillas de Rabanito", "SEM-RAB-COMP"));
+        productoService.actualizar(creado.getId(), request("Semillas de Rabanito Rojo", "SEM-RAB-COMP"));
+        productoService.publicarCambios();
+
+        // Act
+        productoService.compactarCambios();
+
+        // Assert
+        Integer filas = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cambios_producto WHERE producto_id = ?", Integer.class, creado.getId());
+        assertEquals(1, filas);
+        CambiosCatalogoResponse cambios = productoService.obtenerCambios(0, 1000);
+        assertTrue(cambios.getActualizados().stream().anyMatch(p -> p.getId().equals(creado.getId())));
+    }
+
+    @Test
+    void recargarCatalogo_ConCambioDuranteLaLectura_DeberiaDejarloEnTodosLosIndices() {
+        // Arrange: la recarga ya leyo la base de datos cuando se confirma la actualizacion
+        ProductoResponse creado = productoService.crear(request("Semillas de Quinoa", "SEM-QUI-RECARGA"));
+        long versionLeida = catalogoCache.obtenerSnapshot().getVersion();
+        List<ProductoResponse> leidos = catalogoCache.obtenerSnapshot().getProductos();
+        ProductoRequest cambio = request("Semillas de Quinoa Andina", "SEM-QUI-ANDINA");
+        cambio.setCategoria("Granos");
+        cambio.setStock(2);
+        productoService.actualizar(creado.getId(), cambio);
+
+        // Act
+        eventPublisher.publishEvent(new CatalogoRecargadoEvento(leidos, versionLeida));
+
+        // Assert
+        Long id = creado.getId();
+        assertEquals("Semillas de Quinoa Andina", catalogoCache.obtenerSnapshot().buscar(id).orElseThrow().getNombre());
+        assertTrue(indiceBusqueda.buscar("andina", 10).contains(id));
+        assertTrue(facetasCatalogo.contar("Granos").ids().contains(id));
+        assertFalse(facetasCatalogo.contar("Semillas").ids().contains(id));
+        assertEquals(Optional.of(id), indiceSku.buscar("SEM-QUI-ANDINA"));
+        assertTrue(indiceSku.buscar("SEM-QUI-RECARGA").isEmpty());
+        assertTrue(autocompletado.sugerir("quinoa andina", 10).contains(id));
+        assertTrue(monitorStockBajo.listar().stream().anyMatch(p -> p.getId().equals(id) && p.getStock() == 2));
+        assertEquals("Semillas de Quinoa Andina", productosRecientes.obtener(1).orElseThrow().get(0).getNombre());
+    }
+
+    @Test
+    void inicializarSecuenciaCambios_ConLaSecuenciaCreada_NoDeberiaRenumerarNiDuplicar() {
+        // Arrange
+        productoService.crear(request("Semillas de Cilantro", "SEM-CIL-SEC"));
+        productoService.publicarCambios();
+        long antes = ultimaSecuencia();
+
+        // Act
+        boolean creada = productoJdbcRepository.inicializarSecuenciaCambios();
+
+        // Assert
+        assertFalse(creada);
+        assertEquals(antes, ultimaSecuencia());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM secuencia_cambios", Integer.class));
+    }
+
+    private long ultimaSecuencia() {
+        return jdbcTemplate.queryForObject("SELECT ultima FROM secuencia_cambios WHERE id = 1", Long.class);
+    }
+
+    private ProductoRequest request(String nombre, String sku) {
+        ProductoRequest request = new ProductoRequest();
+        request.setNombre(nombre);
+        request.setCategoria("Semillas");
+        request.setPrecio(BigDecimal.valueOf(1500));
+        request.setStock(5);
+        request.setSku(sku);
+        return request;
+    }
+}
@@ -1,24 +1,56 @@
 package com.seedstoroots.app.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seedstoroots.app.catalogo.AutocompletadoProductos;
+import com.seedstoroots.app.catalogo.CatalogoCache;
+import com.seedstoroots.app.catalogo.CatalogoModificadoEvento;
+import com.seedstoroots.app.catalogo.CatalogoPayloadCache;
+import com.seedstoroots.app.catalogo.CatalogoRecargadoEvento;
+import com.seedstoroots.app.catalogo.CatalogoReconstruidoEvento;
+import com.seedstoroots.app.catalogo.FacetasCatalogo;
+import com.seedstoroots.app.catalogo.IndiceBusqueda;
+import com.seedstoroots.app.catalogo.IndiceSku;
+import com.seedstoroots.app.catalogo.ProductoEvento;
+import com.seedstoroots.app.catalogo.ProductosRecientes;
+import com.seedstoroots.app.dto.ActualizacionMasivaRequest;
+import com.seedstoroots.app.dto.ActualizacionMasivaResponse;
+import com.seedstoroots.app.dto.CambiosCatalogoResponse;
+import com.seedstoroots.app.dto.FacetasResponse;
+import com.seedstoroots.app.dto.PaginaResponse;
 import com.seedstoroots.app.dto.ProductoRequest;
 import com.seedstoroots.app.dto.ProductoResponse;
+import com.seedstoroots.app.dto.ProductoSummaryResponse;
+import com.seedstoroots.app.entity.CambioProducto;
 import com.seedstoroots.app.entity.Producto;
+import com.seedstoroots.app.repository.CambioProductoRepository;
+import com.seedstoroots.app.repository.FiltroProductos;
+import com.seedstoroots.app.repository.ProductoJdbcRepository;
 import com.seedstoroots.app.repository.ProductoRepository;
+import com.seedstoroots.app.repository.ProductoResumen;
+import com.seedstoroots.app.repository.UltimoCambio;
 import com.seedstoroots.app.service.impl.ProductoServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +59,37 @@ class ProductoServiceImplTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private ProductoJdbcRepository productoJdbcRepository;
+
+    @Mock
+    private CambioProductoRepository cambioProductoRepository;
+
+    @Spy
+    private CatalogoCache catalogoCache = new CatalogoCache(evento -> { });
+
+    @Spy
+    private CatalogoPayloadCache catalogoPayloadCache = new CatalogoPayloadCache(new ObjectMapper().findAndRegisterModules());
+
+    @Spy
+    private ProductosRecientes productosRecientes = new ProductosRecientes(50);
+
+    @Spy
+    private IndiceBusqueda indiceBusqueda = new IndiceBusqueda();
+
+    @Spy
+    private IndiceSku indiceSku = new IndiceSku();
+
+    @Spy
+    private AutocompletadoProductos autocompletado = new AutocompletadoProductos(10);
+
+    @Spy
+    private FacetasCatalogo facetasCatalogo = new FacetasCatalogo(
+            new BigDecimal[]{BigDecimal.valueOf(5000), BigDecimal.valueOf(10000)});
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductoServiceImpl productoService;
 
@@ -60,10 +123,21 @@ class ProductoServiceImplTest {
     }
 
     @Test
-    void obtenerTodos_DeberiaRetornarListaDeProductos() {
+    void recargarCatalogo_DeberiaPublicarLosProductosActivos() {
         // Arrange
-        List<Producto> productos = Arrays.asList(productoMock);
-        when(productoRepository.findAll()).thenReturn(productos);
+        when(productoRepository.findByActivoTrue()).thenReturn(Arrays.asList(productoMock));
+
+        // Act
+        productoService.recargarCatalogo();
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(any(CatalogoRecargadoEvento.class));
+    }
+
+    @Test
+    void obtenerTodos_DeberiaRetornarListaDeProductosDelSnapshot() {
+        // Arrange
+        cargarEnMemoria();
 
         // Act
         List<ProductoResponse> resultado = productoService.obtenerTodos();
@@ -72,7 +146,208 @@ class ProductoServiceImplTest {
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals("Semillas de Tomate", resultado.get(0).getNombre());
-        verify(productoRepository, times(1)).findAll();
+        verify(productoRepository, never()).findAll();
+    }
+
+    @Test
+    void obtenerCatalogoSerializado_DeberiaReutilizarLosBytesMientrasNoCambieElCatalogo() {
+        // Arrange
+        cargarEnMemoria();
+
+        // Act
+        CatalogoPayloadCache.Payload primero = productoService.obtenerCatalogoSerializado();
+        CatalogoPayloadCache.Payload segundo = productoService.obtenerCatalogoSerializado();
+        ProductoResponse eliminado = new ProductoResponse();
+        eliminado.setId(1L);
+        eliminado.setActivo(false);
+        catalogoCache.alCambiarProducto(new ProductoEvento(ProductoEvento.Tipo.ELIMINADO, eliminado));
+        CatalogoPayloadCache.Payload tercero = productoService.obtenerCatalogoSerializado();
+
+        // Assert
+        assertSame(primero, segundo);
+        assertTrue(new String(primero.json()).contains("Semillas de Tomate"));
+        assertEquals("[]", new String(tercero.json()));
+        assertNotEquals(primero.huella(), tercero.huella());
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void obtenerPorId_CuandoEstaEnSnapshot_NoDeberiaConsultarRepositorio() {
+        // Arrange
+        cargarEnMemoria();
+
+        // Act
+        ProductoResponse resultado = productoService.obtenerPorId(1L);
+
+        // Assert
+        assertEquals("Semillas de Tomate", resultado.getNombre());
+        verify(productoRepository, never()).findById(any());
+    }
+
+    @Test
+    void obtenerPagina_SinCursor_DeberiaRetornarPrimeraPaginaYCursorSiguiente() {
+        // Arrange
+        when(productoRepository.buscarResumen(FiltroProductos.sinFiltros(), null, null, 2))
+                .thenReturn(Arrays.asList(
+                        resumen(1L, "Semillas de Tomate", LocalDateTime.of(2025, 1, 2, 10, 0)),
+                        resumen(2L, "Semillas de Lechuga", LocalDateTime.of(2025, 1, 1, 10, 0))));
+
+        // Act
+        PaginaResponse<ProductoSummaryResponse> pagina = productoService.obtenerPagina(FiltroProductos.sinFiltros(), null, 1);
+
+        // Assert
+        assertEquals(1, pagina.getItems().size());
+        assertEquals(1L, pagina.getItems().get(0).getId());
+        assertEquals("Semillas de Tomate", pagina.getItems().get(0).getNombre());
+        assertNotNull(pagina.getNext());
+        verify(productoRepository, never()).findAll();
+        verify(productoRepository, never()).findProductosRecientes(any(Pageable.class));
+    }
+
+    @Test
+    void obtenerPagina_OrdenadoPorPrecio_DeberiaUsarElPrecioEnElCursor() {
+        // Arrange
+        FiltroProductos filtro = new FiltroProductos("Semillas", null, BigDecimal.valueOf(5000), true,
+                FiltroProductos.Orden.PRECIO_ASC);
+        ProductoResumen barato = resumen(1L, "Semillas de Tomate", LocalDateTime.of(2025, 1, 2, 10, 0));
+        when(productoRepository.buscarResumen(filtro, null, null, 2)).thenReturn(Arrays.asList(barato, barato));
+        String cursor = productoService.obtenerPagina(filtro, null, 1).getNext();
+        when(productoRepository.buscarResumen(filtro, BigDecimal.valueOf(2990), 1L, 2)).thenReturn(List.of());
+
+        // Act
+        PaginaResponse<ProductoSummaryResponse> pagina = productoService.obtenerPagina(filtro, cursor, 1);
+
+        // Assert
+        assertTrue(pagina.getItems().isEmpty());
+        verify(productoRepository, times(1)).buscarResumen(filtro, BigDecimal.valueOf(2990), 1L, 2);
+    }
+
+    @Test
+    void obtenerPagina_ConCursor_DeberiaBuscarDespuesDeLaUltimaPosicion() {
+        // Arrange
+        FiltroProductos filtro = FiltroProductos.sinFiltros();
+        ProductoResumen primero = resumen(1L, "Semillas de Tomate", LocalDateTime.of(2025, 1, 2, 10, 0));
+        when(productoRepository.buscarResumen(filtro, null, null, 2))
+                .thenReturn(Arrays.asList(primero, primero));
+        String cursor = productoService.obtenerPagina(filtro, null, 1).getNext();
+        when(productoRepository.buscarResumen(filtro, LocalDateTime.of(2025, 1, 2, 10, 0), 1L, 2))
+                .thenReturn(List.of());
+
+        // Act
+        PaginaResponse<ProductoSummaryResponse> pagina = productoService.obtenerPagina(filtro, cursor, 1);
+
+        // Assert
+        assertTrue(pagina.getItems().isEmpty());
+        assertNull(pagina.getNext());
+    }
+
+    @Test
+    void obtenerPagina_ConCursorInvalido_DeberiaLanzarExcepcion() {
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> {
+            productoService.obtenerPagina(FiltroProductos.sinFiltros(), "no-es-un-cursor", 10);
+        });
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void obtenerPorSku_CuandoEstaIndexado_NoDeberiaConsultarRepositorio() {
+        // Arrange
+        cargarEnMemoria();
+
+        // Act
+        ProductoResponse resultado = productoService.obtenerPorSku("SEM-TOM-001");
+
+        // Assert
+        assertEquals(1L, resultado.getId());
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void obtenerPorSku_CuandoNoEstaIndexado_DeberiaBuscarEnRepositorio() {
+        // Arrange
+        productoMock.setActivo(false);
+        when(productoRepository.findBySku("SEM-TOM-001")).thenReturn(Optional.of(productoMock));
+
+        // Act
+        ProductoResponse resultado = productoService.obtenerPorSku("SEM-TOM-001");
+
+        // Assert
+        assertEquals(1L, resultado.getId());
+        verify(productoRepository, times(1)).findBySku("SEM-TOM-001");
+    }
+
+    @Test
+    void obtenerRecientes_DeberiaConsultarUnaVezConLimiteYLuegoUsarElTop() {
+        // Arrange
+        when(productoRepository.findProductosRecientes(any(Pageable.class)))
+                .thenReturn(Arrays.asList(productoMock));
+
+        // Act
+        List<ProductoResponse> primera = productoService.obtenerRecientes(5);
+        List<ProductoResponse> segunda = productoService.obtenerRecientes(5);
+
+        // Assert
+        assertEquals(1, primera.size());
+        assertEquals(1, segunda.size());
+        verify(productoRepository, times(1)).findProductosRecientes(any(Pageable.class));
+        verify(productoRepository, never()).findAll();
+    }
+
+    @Test
+    void obtenerRecientes_DeberiaLimitarLaConsultaAlTamanoMaximoDePagina() {
+        // Arrange
+        when(productoRepository.findProductosRecientes(any(Pageable.class)))
+                .thenReturn(Arrays.asList(productoMock));
+
+        // Act
+        productoService.obtenerRecientes(Integer.MAX_VALUE);
+
+        // Assert
+        verify(productoRepository).findProductosRecientes(PageRequest.of(0, 100));
+    }
+
+    @Test
+    void buscar_DeberiaRetornarProductosDelSnapshotSinConsultarRepositorio() {
+        // Arrange
+        cargarEnMemoria();
+
+        // Act
+        List<ProductoResponse> resultado = productoService.buscar("TOMATÉ", 10);
+
+        // Assert
+        assertEquals(1, resultado.size());
+        assertEquals("Semillas de Tomate", resultado.get(0).getNombre());
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void autocompletar_DeberiaRetornarResumenesDesdeMemoria() {
+        // Arrange
+        cargarEnMemoria();
+
+        // Act
+        List<ProductoSummaryResponse> sugerencias = productoService.autocompletar("tomat", 5);
+
+        // Assert
+        assertEquals(1, sugerencias.size());
+        assertEquals("Semillas de Tomate", sugerencias.get(0).getNombre());
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void obtenerFacetas_DeberiaRetornarProductosDeLaCategoriaYConteos() {
+        // Arrange
+        cargarEnMemoria();
+
+        // Act
+        FacetasResponse resultado = productoService.obtenerFacetas("Semillas");
+
+        // Assert
+        assertEquals(1, resultado.getProductos().size());
+        assertEquals(1L, resultado.getCategorias().get("Semillas"));
+        assertEquals(1L, resultado.getRangosPrecio().get(0).getCantidad());
+        verifyNoInteractions(productoRepository);
     }
 
     @Test
@@ -115,13 +390,15 @@ class ProductoServiceImplTest {
         assertEquals("Semillas de Tomate", resultado.getNombre());
         assertEquals(BigDecimal.valueOf(2990), resultado.getPrecio());
         verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(cambioProductoRepository, times(1)).save(any(CambioProducto.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ProductoEvento.class));
     }
 
     @Test
     void actualizar_CuandoExiste_DeberiaActualizarProducto() {
         // Arrange
         when(productoRepository.findById(1L)).thenReturn(Optional.of(productoMock));
-        when(productoRepository.save(any(Producto.class))).thenReturn(productoMock);
+        when(productoRepository.saveAndFlush(any(Producto.class))).thenReturn(productoMock);
 
         productoRequest.setNombre("Semillas de Tomate Actualizado");
         productoRequest.setPrecio(BigDecimal.valueOf(3990));
@@ -132,20 +409,130 @@ class ProductoServiceImplTest {
         // Assert
         assertNotNull(resultado);
         verify(productoRepository, times(1)).findById(1L);
-        verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(productoRepository, times(1)).saveAndFlush(any(Producto.class));
     }
 
     @Test
     void eliminar_CuandoExiste_DeberiaDesactivarProducto() {
         // Arrange
         when(productoRepository.findById(1L)).thenReturn(Optional.of(productoMock));
-        when(productoRepository.save(any(Producto.class))).thenReturn(productoMock);
+        when(productoRepository.saveAndFlush(any(Producto.class))).thenReturn(productoMock);
 
         // Act
         productoService.eliminar(1L);
 
         // Assert
+        assertFalse(productoMock.getActivo());
         verify(productoRepository, times(1)).findById(1L);
-        verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(productoRepository, times(1)).saveAndFlush(any(Producto.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ProductoEvento.class));
+    }
+
+    @Test
+    void actualizarMasivo_DeberiaAplicarPorIdYSkuYAvisarUnaVez() {
+        // Arrange
+        ActualizacionMasivaRequest porId = new ActualizacionMasivaRequest();
+        porId.setId(1L);
+        porId.setPrecio(BigDecimal.valueOf(3490));
+        ActualizacionMasivaRequest porSku = new ActualizacionMasivaRequest();
+        porSku.setSku("SEM-TOM-001");
+        porSku.setStock(80);
+        ActualizacionMasivaRequest inexistente = new ActualizacionMasivaRequest();
+        inexistente.setSku("NO-EXISTE");
+        inexistente.setStock(5);
+        when(productoJdbcRepository.actualizarPrecioYStockPorId(List.of(porId))).thenReturn(new int[]{1});
+        when(productoJdbcRepository.actualizarPrecioYStockPorSku(List.of(porSku, inexistente)))
+                .thenReturn(new int[]{1, 0});
+
+        // Act
+        ActualizacionMasivaResponse resultado =
+                productoService.actualizarMasivo(List.of(porId, porSku, inexistente));
+
+        // Assert
+        assertEquals(3, resultado.getSolicitados());
+        assertEquals(2, resultado.getActualizados());
+        assertEquals(List.of("NO-EXISTE"), resultado.getNoEncontrados());
+        verify(eventPublisher, times(1)).publishEvent(any(CatalogoModificadoEvento.class));
+        verify(productoRepository, never()).save(any(Producto.class));
+    }
+
+    @Test
+    void actualizarMasivo_SinProductoIdentificado_DeberiaLanzarExcepcion() {
+        // Arrange
+        ActualizacionMasivaRequest cambio = new ActualizacionMasivaRequest();
+        cambio.setPrecio(BigDecimal.valueOf(1000));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> productoService.actualizarMasivo(List.of(cambio)));
+        verifyNoInteractions(productoJdbcRepository);
+    }
+
+    @Test
+    void obtenerCambios_DeberiaSepararActualizadosYEliminados() {
+        // Arrange
+        Producto inactivo = new Producto();
+        inactivo.setId(2L);
+        inactivo.setActivo(false);
+        when(cambioProductoRepository.findUltimosCambiosDesde(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(cambio(1L, 11L), cambio(2L, 14L), cambio(3L, 15L)));
+        when(productoRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(productoMock, inactivo));
+
+        // Act
+        CambiosCatalogoResponse cambios = productoService.obtenerCambios(10L, 2);
+
+        // Assert
+        assertEquals(14L, cambios.getHasta());
+        assertTrue(cambios.isHayMas());
+        assertEquals(1, cambios.getActualizados().size());
+        assertEquals(List.of(2L), cambios.getEliminados());
+    }
+
+    @Test
+    void obtenerCambios_EnLaPrimeraSincronizacion_NoDeberiaEnviarEliminados() {
+        // Arrange
+        when(cambioProductoRepository.findUltimosCambiosDesde(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(cambio(5L, 3L)));
+        when(productoRepository.findAllById(List.of(5L))).thenReturn(List.of());
+
+        // Act
+        CambiosCatalogoResponse cambios = productoService.obtenerCambios(0L, 100);
+
+        // Assert
+        assertEquals(3L, cambios.getHasta());
+        assertFalse(cambios.isHayMas());
+        assertTrue(cambios.getActualizados().isEmpty());
+        assertTrue(cambios.getEliminados().isEmpty());
+    }
+
+    private UltimoCambio cambio(Long productoId, Long secuencia) {
+        return new SpelAwareProxyProjectionFactory().createProjection(UltimoCambio.class, Map.of(
+                "productoId", productoId,
+                "secuencia", secuencia));
+    }
+
+    private ProductoResumen resumen(Long id, String nombre, LocalDateTime fechaCreacion) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ProductoResumen.class, Map.of(
+                "id", id,
+                "nombre", nombre,
+                "precio", BigDecimal.valueOf(2990),
+                "stock", 10,
+                "fechaCreacion", fechaCreacion));
+    }
+
+    private void cargarEnMemoria() {
+        ProductoResponse response = new ProductoResponse();
+        response.setId(productoMock.getId());
+        response.setNombre(productoMock.getNombre());
+        response.setDescripcion(productoMock.getDescripcion());
+        response.setCategoria(productoMock.getCategoria());
+        response.setPrecio(productoMock.getPrecio());
+        response.setSku(productoMock.getSku());
+        response.setActivo(true);
+        catalogoCache.alRecargarCatalogo(new CatalogoRecargadoEvento(List.of(response), 0));
+        CatalogoReconstruidoEvento evento = new CatalogoReconstruidoEvento(List.of(response));
+        indiceBusqueda.alRecargarCatalogo(evento);
+        indiceSku.alRecargarCatalogo(evento);
+        autocompletado.alRecargarCatalogo(evento);
+        facetasCatalogo.alRecargarCatalogo(evento);
     }
-}
\ No newline at end of file
+}
@@ -6,12 +6,14 @@ import com.seedstoroots.app.entity.Rol;
 import com.seedstoroots.app.entity.Usuario;
 import com.seedstoroots.app.repository.UsuarioRepository;
 import com.seedstoroots.app.service.impl.UsuarioServiceImpl;
+import com.seedstoroots.app.usuario.UsuariosRegistrados;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Arrays;
 import java.util.List;
@@ -27,6 +29,12 @@ class UsuarioServiceImplTest {
     @Mock
     private UsuarioRepository usuarioRepository;
 
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UsuariosRegistrados usuariosRegistrados;
+
     @InjectMocks
     private UsuarioServiceImpl usuarioService;
 
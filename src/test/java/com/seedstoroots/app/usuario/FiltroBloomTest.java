@@ -0,0 +1,42 @@
+package com.seedstoroots.app.usuario;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomTest {
+
+    @Test
+    void podriaContener_ValoresAgregados_NuncaDeberiaDarFalsoNegativo() {
+        // Arrange
+        FiltroBloom filtro = new FiltroBloom(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filtro.agregar("email:usuario" + i + "@ejemplo.com");
+        }
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filtro.podriaContener("email:usuario" + i + "@ejemplo.com"));
+        }
+    }
+
+    @Test
+    void podriaContener_ValoresNuevos_DeberiaRespetarLaTasaDeFalsosPositivos() {
+        // Arrange
+        FiltroBloom filtro = new FiltroBloom(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filtro.agregar("run:" + i);
+        }
+
+        // Act
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filtro.podriaContener("run:nuevo-" + i)) {
+                falsosPositivos++;
+            }
+        }
+
+        // Assert: 1% esperado, con margen
+        assertTrue(falsosPositivos < 300, "falsos positivos: " + falsosPositivos);
+    }
+}
@@ -0,0 +1,64 @@
+package com.seedstoroots.app.usuario;
+
+import com.seedstoroots.app.repository.UsuarioJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RegistroUltimoLoginTest {
+
+    private static final LocalDateTime PRIMERO = LocalDateTime.of(2024, 5, 1, 10, 0);
+    private static final LocalDateTime SEGUNDO = PRIMERO.plusMinutes(5);
+
+    private UsuarioJdbcRepository usuarioJdbcRepository;
+    private RegistroUltimoLogin registro;
+
+    @BeforeEach
+    void setUp() {
+        usuarioJdbcRepository = mock(UsuarioJdbcRepository.class);
+        registro = new RegistroUltimoLogin(usuarioJdbcRepository);
+    }
+
+    @Test
+    void vaciar_VariosLoginsDelMismoUsuario_DeberiaEscribirSoloElMasReciente() {
+        // Arrange
+        registro.registrar(1L, SEGUNDO);
+        registro.registrar(1L, PRIMERO);
+        registro.registrar(2L, PRIMERO);
+
+        // Act
+        registro.vaciar();
+
+        // Assert
+        verify(usuarioJdbcRepository, times(1)).actualizarUltimosLogins(Map.of(1L, SEGUNDO, 2L, PRIMERO));
+        assertEquals(0, registro.pendientes());
+    }
+
+    @Test
+    void vaciar_SinPendientes_NoDeberiaEscribir() {
+        // Act
+        registro.vaciar();
+
+        // Assert
+        verifyNoInteractions(usuarioJdbcRepository);
+    }
+
+    @Test
+    void vaciar_ConError_DeberiaConservarLosPendientes() {
+        // Arrange
+        registro.registrar(1L, PRIMERO);
+        doThrow(new DataAccessResourceFailureException("sin conexion"))
+                .when(usuarioJdbcRepository).actualizarUltimosLogins(any());
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> registro.vaciar());
+        assertEquals(1, registro.pendientes());
+    }
+}